@@ -0,0 +1,37 @@
+package com.rentease.cache;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Time-to-live per cache name, shared by the Redis cache and the in-process caches so both
+ * tiers expire entries on the same schedule.
+ */
+public final class CacheTtls {
+
+    public static final Duration DEFAULT = Duration.ofMinutes(10);
+
+    private static final Map<String, Duration> TTLS = Map.of(
+            // Listing cache - 5 minutes (frequently updated)
+            "listings", Duration.ofMinutes(5),
+            // Listing detail cache - 5 minutes
+            "listing", Duration.ofMinutes(5),
+            // User profile cache - 15 minutes (less frequently updated)
+            "users", Duration.ofMinutes(15),
+            // Recent listings cache - 2 minutes (frequently accessed, frequently updated)
+            "recentListings", Duration.ofMinutes(2),
+            // Categories cache - 1 hour (rarely changes)
+            "categories", Duration.ofHours(1)
+    );
+
+    private CacheTtls() {
+    }
+
+    public static Map<String, Duration> all() {
+        return TTLS;
+    }
+
+    public static Duration of(String cacheName) {
+        return TTLS.getOrDefault(cacheName, DEFAULT);
+    }
+}
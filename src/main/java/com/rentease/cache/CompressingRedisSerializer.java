@@ -0,0 +1,100 @@
+package com.rentease.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates the output of another serializer once it is larger than a threshold. Every value
+ * starts with a one-byte header saying whether the rest is compressed, so small values are
+ * stored as-is and the threshold can change without invalidating what is already cached.
+ */
+public class CompressingRedisSerializer<T> implements RedisSerializer<T> {
+
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+
+    private final RedisSerializer<T> delegate;
+    private final int thresholdBytes;
+
+    public CompressingRedisSerializer(RedisSerializer<T> delegate, int thresholdBytes) {
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        byte[] raw = delegate.serialize(value);
+        if (raw == null) {
+            return null;
+        }
+        if (raw.length < thresholdBytes) {
+            return withHeader(PLAIN, raw, raw.length);
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[raw.length + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            // Incompressible payloads are cheaper to store and read as-is
+            return length < raw.length
+                    ? withHeader(DEFLATED, buffer, length)
+                    : withHeader(PLAIN, raw, raw.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        return switch (bytes[0]) {
+            case PLAIN -> delegate.deserialize(Arrays.copyOfRange(bytes, 1, bytes.length));
+            case DEFLATED -> delegate.deserialize(inflate(bytes));
+            default -> throw new SerializationException("Unknown cache value header: " + bytes[0]);
+        };
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 1, bytes.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Truncated compressed cache value");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] withHeader(byte header, byte[] body, int length) {
+        byte[] out = new byte[length + 1];
+        out[0] = header;
+        System.arraycopy(body, 0, out, 1, length);
+        return out;
+    }
+}
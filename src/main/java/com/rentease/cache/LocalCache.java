@@ -0,0 +1,270 @@
+package com.rentease.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache with a fixed time-to-live, limited both by entry count and by
+ * weight (a collection weighs one per element, anything else weighs one).
+ *
+ * Eviction follows W-TinyLFU: new entries land in a small LRU window, and when the window
+ * overflows its eldest entry only displaces the eldest entry of the main LRU region if it has
+ * been accessed more often, according to a {@link FrequencySketch}. A burst of one-off keys
+ * therefore cannot flush the entries that are actually hot.
+ *
+ * Keys are compared by their string form, the same way the Redis cache builds its keys, so an
+ * invalidation received as text matches the local entry.
+ *
+ * {@link #get(Object, Callable)} loads each key at most once at a time: concurrent callers
+ * for a key that is already loading wait for that load instead of running their own.
+ */
+public class LocalCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final int windowMaxEntries;
+
+    // All state below is guarded by lock; both regions are access-ordered
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Entry> main = new LinkedHashMap<>(64, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long weight;
+
+    // Loads in progress, by key; the loader runs outside lock
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(Object value, long expiresAt, int weight) {}
+
+    public LocalCache(String name, int maxEntries, long maxWeight, Duration ttl) {
+        super(false);
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.windowMaxEntries = Math.max(1, maxEntries / 100);
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String k = keyOf(key);
+        synchronized (lock) {
+            sketch.increment(k.hashCode());
+            Entry entry = window.get(k);
+            if (entry == null) {
+                entry = main.get(k);
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAt() >= 0) {
+                remove(k);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        String k = keyOf(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(k, load);
+        if (inFlight != null) {
+            try {
+                return (T) inFlight.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            load.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            // No-op unless the loader threw an Error; waiters must not hang on the load either way
+            load.completeExceptionally(new IllegalStateException("Value loader failed for key " + k));
+            loading.remove(k, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        String k = keyOf(key);
+        Entry entry = new Entry(toStoreValue(value), System.nanoTime() + ttlNanos, weigh(value));
+        synchronized (lock) {
+            sketch.increment(k.hashCode());
+            // An update keeps its place in main; anything new starts in the window
+            boolean inMain = main.containsKey(k);
+            remove(k);
+            (inMain ? main : window).put(k, entry);
+            weight += entry.weight();
+            puts.increment();
+            evictIfNeeded();
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        synchronized (lock) {
+            remove(keyOf(key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (lock) {
+            window.clear();
+            main.clear();
+            weight = 0;
+        }
+    }
+
+    public long getSize() {
+        synchronized (lock) {
+            return window.size() + main.size();
+        }
+    }
+
+    public long getWeight() {
+        synchronized (lock) {
+            return weight;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    static String keyOf(Object key) {
+        return String.valueOf(key);
+    }
+
+    private void evictIfNeeded() {
+        // Window overflow: its eldest entry competes with main's eldest for a place in main
+        while (window.size() > windowMaxEntries) {
+            Map.Entry<String, Entry> candidate = removeEldest(window);
+            if (isFull(1)) {
+                Map.Entry<String, Entry> victim = eldest(main);
+                if (victim != null && frequency(candidate) <= frequency(victim)) {
+                    discard(candidate.getValue());
+                    continue;
+                }
+                if (victim != null) {
+                    main.remove(victim.getKey());
+                    discard(victim.getValue());
+                }
+            }
+            main.put(candidate.getKey(), candidate.getValue());
+        }
+
+        // Still over a limit (e.g. one heavy entry): drop least recently used, main first
+        while (isFull(0) && !(window.isEmpty() && main.isEmpty())) {
+            discard(removeEldest(main.isEmpty() ? window : main).getValue());
+        }
+    }
+
+    // True when the cache, plus entries currently in transit between regions, exceeds a limit
+    private boolean isFull(int inTransit) {
+        return window.size() + main.size() + inTransit > maxEntries || weight > maxWeight;
+    }
+
+    private int frequency(Map.Entry<String, Entry> entry) {
+        return sketch.frequency(entry.getKey().hashCode());
+    }
+
+    private void remove(String key) {
+        Entry removed = window.remove(key);
+        if (removed == null) {
+            removed = main.remove(key);
+        }
+        if (removed != null) {
+            weight -= removed.weight();
+        }
+    }
+
+    private void discard(Entry entry) {
+        weight -= entry.weight();
+        evictions.increment();
+    }
+
+    private static Map.Entry<String, Entry> eldest(LinkedHashMap<String, Entry> region) {
+        Iterator<Map.Entry<String, Entry>> it = region.entrySet().iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private static Map.Entry<String, Entry> removeEldest(LinkedHashMap<String, Entry> region) {
+        Iterator<Map.Entry<String, Entry>> it = region.entrySet().iterator();
+        Map.Entry<String, Entry> eldest = it.next();
+        Map.Entry<String, Entry> detached = Map.entry(eldest.getKey(), eldest.getValue());
+        it.remove();
+        return detached;
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
+        }
+        return 1;
+    }
+}
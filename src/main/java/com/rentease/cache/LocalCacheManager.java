@@ -0,0 +1,39 @@
+package com.rentease.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory cache manager for when Redis is not available. Each cache is a bounded
+ * {@link LocalCache} that expires entries on the same TTL the Redis cache would use.
+ * Caches not named up front are created on first use with {@link CacheTtls#DEFAULT}, as the
+ * Redis cache manager does.
+ */
+public class LocalCacheManager implements CacheManager {
+
+    private final ConcurrentMap<String, LocalCache> caches = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxWeight;
+
+    public LocalCacheManager(Collection<String> cacheNames, int maxEntries, long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        cacheNames.forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName ->
+                new LocalCache(cacheName, maxEntries, maxWeight, CacheTtls.of(cacheName)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+}
@@ -0,0 +1,55 @@
+package com.rentease.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes the standard cache.gets / cache.puts / cache.evictions / cache.size meters for a
+ * {@link LocalCache}, plus its current weight.
+ */
+public class LocalCacheMeterBinder extends CacheMeterBinder<LocalCache> {
+
+    public LocalCacheMeterBinder(LocalCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        LocalCache cache = getCache();
+        return cache != null ? cache.getSize() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        LocalCache cache = getCache();
+        return cache != null ? cache.getHitCount() : 0L;
+    }
+
+    @Override
+    protected Long missCount() {
+        LocalCache cache = getCache();
+        return cache != null ? cache.getMissCount() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        LocalCache cache = getCache();
+        return cache != null ? cache.getEvictionCount() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        LocalCache cache = getCache();
+        return cache != null ? cache.getPutCount() : 0L;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.weight", getCache(), LocalCache::getWeight)
+                .tags(getTagsWithCacheName())
+                .description("Total weight of the entries in the cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,106 @@
+package com.rentease.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps the Redis cache manager with a bounded local tier per cache, so hot entries are served
+ * from the heap instead of a Redis round trip and deserialization.
+ *
+ * Local entries live for the cache's TTL, capped at {@code localTtlCap}. Writes and evictions
+ * are published on {@link #INVALIDATION_CHANNEL}; every other instance drops the matching local
+ * entry when it receives the message. If a message is lost, the cap bounds how long a stale
+ * local copy can be served.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    public static final String INVALIDATION_CHANNEL = "rentease:cache:invalidate";
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final CacheManager remote;
+    private final StringRedisTemplate redisTemplate;
+    private final int localMaxEntries;
+    private final long localMaxWeight;
+    private final Duration localTtlCap;
+
+    // Lets an instance ignore its own invalidations
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remote, StringRedisTemplate redisTemplate,
+                                int localMaxEntries, long localMaxWeight, Duration localTtlCap) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.localMaxEntries = localMaxEntries;
+        this.localMaxWeight = localMaxWeight;
+        this.localTtlCap = localTtlCap;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache remoteCache = remote.getCache(cacheName);
+            if (remoteCache == null) {
+                return null;
+            }
+            Duration ttl = CacheTtls.of(cacheName);
+            LocalCache local = new LocalCache(cacheName, localMaxEntries, localMaxWeight,
+                    ttl.compareTo(localTtlCap) < 0 ? ttl : localTtlCap);
+            return new TwoLevelCache(local, remoteCache, this);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    /**
+     * Applies an invalidation published by another instance. Messages are
+     * {@code nodeId \n E \n cache \n key} or {@code nodeId \n C \n cache}.
+     */
+    public void onInvalidation(String message) {
+        String[] parts = message.split("\n", 4);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[1])) {
+            cache.getLocal().clear();
+        } else if (EVICT.equals(parts[1]) && parts.length == 4) {
+            cache.getLocal().evict(parts[3]);
+        }
+    }
+
+    void publishEvict(String cacheName, Object key) {
+        publish(nodeId + "\n" + EVICT + "\n" + cacheName + "\n" + LocalCache.keyOf(key));
+    }
+
+    void publishClear(String cacheName) {
+        publish(nodeId + "\n" + CLEAR + "\n" + cacheName);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            // Other instances fall back to the local TTL cap
+            log.warn("Could not publish cache invalidation", e);
+        }
+    }
+}
@@ -13,6 +13,11 @@ public class AppConfig {
 
     private Jwt jwt = new Jwt();
     private Cloudinary cloudinary = new Cloudinary();
+    private AsyncExecutor asyncExecutor = new AsyncExecutor();
+    private Outbox outbox = new Outbox();
+    private Mail mail = new Mail();
+    private Cache cache = new Cache();
+    private WebSocket websocket = new WebSocket();
     private String frontendUrl;
 
     @Getter
@@ -21,6 +26,9 @@ public class AppConfig {
         private String secret;
         private long accessTokenExpirationMs;
         private long refreshTokenExpirationMs;
+        private int claimsCacheSize = 10_000;
+        private long claimsCacheTtlSeconds = 300;
+        private long revocationPollIntervalMs = 30_000;
     }
 
     @Getter
@@ -30,4 +38,46 @@ public class AppConfig {
         private String apiKey;
         private String apiSecret;
     }
+
+    @Getter
+    @Setter
+    public static class AsyncExecutor {
+        private int corePoolSize = 2;
+        private int maxPoolSize = 4;
+        private int queueCapacity = 200;
+        private int awaitTerminationSeconds = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        private long pollIntervalMs = 2000;
+        private int batchSize = 20;
+        private int maxAttempts = 8;
+        private int leaseSeconds = 300;
+        private int retentionDays = 7;
+    }
+
+    @Getter
+    @Setter
+    public static class Mail {
+        private int recipientHourlyLimit = 20;
+        private int messageDigestMinutes = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private int localMaxEntries = 1000;
+        private long localMaxWeight = 20_000; // A collection weighs one per element
+        private int localTtlSeconds = 60;
+        private int compressionThresholdBytes = 1024; // Redis values above this are deflated
+        private int availabilityTtlSeconds = 60; // Booked ranges per listing, see BookingAvailabilityIndex
+    }
+
+    @Getter
+    @Setter
+    public static class WebSocket {
+        private String broker = "simple"; // simple or redis
+    }
 }
@@ -1,12 +1,70 @@
 package com.rentease.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Configuration
 @EnableAsync
+@Slf4j
 public class AsyncConfig {
-    // Enables async processing for email sending
-    // Uses Spring's default SimpleAsyncTaskExecutor
-    // For production, consider configuring a custom ThreadPoolTaskExecutor
+
+    // Number of tasks that found the pool and queue full and ran on the caller's thread instead
+    private final AtomicLong rejectedTasks = new AtomicLong();
+
+    /**
+     * Bounded executor for background work: outbox email delivery and any @Async method. Replaces
+     * Spring's default SimpleAsyncTaskExecutor, which starts a new thread per task. When the queue is
+     * full the task runs on the submitting thread, which slows the caller down instead of dropping
+     * the work.
+     */
+    @Bean(name = "taskExecutor")
+    public ThreadPoolTaskExecutor taskExecutor(AppConfig appConfig) {
+        AppConfig.AsyncExecutor props = appConfig.getAsyncExecutor();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(props.getCorePoolSize());
+        executor.setMaxPoolSize(props.getMaxPoolSize());
+        executor.setQueueCapacity(props.getQueueCapacity());
+        executor.setThreadNamePrefix("async-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejectedTasks.incrementAndGet();
+            log.warn("Async executor saturated, running task on caller thread");
+            if (!pool.isShutdown()) {
+                task.run();
+            }
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(props.getAwaitTerminationSeconds());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public MeterBinder asyncExecutorMetrics(@Qualifier("taskExecutor") ThreadPoolTaskExecutor taskExecutor) {
+        return registry -> {
+            ThreadPoolExecutor pool = taskExecutor.getThreadPoolExecutor();
+            Gauge.builder("app.async.queue.size", pool, p -> p.getQueue().size())
+                    .description("Tasks waiting in the async executor queue")
+                    .register(registry);
+            Gauge.builder("app.async.active", pool, ThreadPoolExecutor::getActiveCount)
+                    .description("Threads currently running async tasks")
+                    .register(registry);
+            Gauge.builder("app.async.pool.size", pool, ThreadPoolExecutor::getPoolSize)
+                    .description("Current number of threads in the async executor")
+                    .register(registry);
+            FunctionCounter.builder("app.async.rejected", rejectedTasks, AtomicLong::get)
+                    .description("Tasks rejected by the async executor and run on the caller thread")
+                    .register(registry);
+        };
+    }
 }
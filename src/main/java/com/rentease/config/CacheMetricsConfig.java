@@ -0,0 +1,43 @@
+package com.rentease.config;
+
+import com.rentease.cache.LocalCache;
+import com.rentease.cache.LocalCacheMeterBinder;
+import com.rentease.cache.TwoLevelCache;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.cache.Cache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheMetricsConfig {
+
+    /**
+     * Lets actuator bind cache metrics for the in-process caches. The cache manager only hands out
+     * the two-level wrappers, so Spring Boot never sees their Redis tier on its own: both tiers are
+     * bound here, tagged tier=local and tier=remote.
+     */
+    @Bean
+    public CacheMeterBinderProvider<Cache> localCacheMeterBinderProvider() {
+        return (cache, tags) -> {
+            if (cache instanceof LocalCache local) {
+                return new LocalCacheMeterBinder(local, tags);
+            }
+            if (cache instanceof TwoLevelCache twoLevel) {
+                MeterBinder localTier = new LocalCacheMeterBinder(twoLevel.getLocal(), Tags.concat(tags, "tier", "local"));
+                if (!(twoLevel.getRemote() instanceof RedisCache redis)) {
+                    return localTier;
+                }
+                MeterBinder remoteTier = new RedisCacheMetrics(redis, Tags.concat(tags, "tier", "remote"));
+                return registry -> {
+                    localTier.bindTo(registry);
+                    remoteTier.bindTo(registry);
+                };
+            }
+            return null;
+        };
+    }
+}
@@ -1,16 +1,27 @@
 package com.rentease.config;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rentease.cache.CacheTtls;
+import com.rentease.cache.CompressingRedisSerializer;
+import com.rentease.cache.LocalCacheManager;
+import com.rentease.cache.TwoLevelCacheManager;
+import com.rentease.dto.response.ListingResponse;
+import com.rentease.dto.response.ListingSummaryResponse;
+import com.rentease.service.BookingAvailabilityIndex;
+import com.rentease.websocket.RedisBrokerBridge;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -21,13 +32,21 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Configuration
 @EnableCaching
@@ -35,6 +54,8 @@ import java.util.Map;
 @Slf4j
 public class RedisConfig {
 
+    private static final String TYPED_KEY_PREFIX = "v2:";
+
     @Value("${spring.data.redis.host:localhost}")
     private String redisHost;
 
@@ -63,6 +84,29 @@ public class RedisConfig {
         return mapper;
     }
 
+    /**
+     * ObjectMapper for caches whose value type is fixed: no class names are written into the
+     * payload, and fields added or removed between deploys are tolerated on read.
+     */
+    private ObjectMapper typedCacheObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+
+    // Typed JSON, deflated once it grows past the threshold. The key prefix is tied to the
+    // format so entries written by the generic serializer are never read back with this one.
+    private static RedisCacheConfiguration withTypedValues(RedisCacheConfiguration config, ObjectMapper mapper,
+                                                           JavaType type, int compressionThresholdBytes) {
+        RedisSerializer<Object> serializer = new CompressingRedisSerializer<>(
+                new Jackson2JsonRedisSerializer<>(mapper, type), compressionThresholdBytes);
+        return config
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
+                .prefixCacheNameWith(TYPED_KEY_PREFIX);
+    }
+
     @Bean
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
     public LettuceConnectionFactory redisConnectionFactory() {
@@ -93,54 +137,87 @@ public class RedisConfig {
     @Bean
     @Primary
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory, AppConfig appConfig) {
         GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper());
 
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10))
+                .entryTtl(CacheTtls.DEFAULT)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer))
                 .disableCachingNullValues();
 
         // Custom TTLs for different cache types
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-
-        // Listing cache - 5 minutes (frequently updated)
-        cacheConfigurations.put("listings", defaultConfig.entryTtl(Duration.ofMinutes(5)));
-
-        // Listing detail cache - 5 minutes
-        cacheConfigurations.put("listing", defaultConfig.entryTtl(Duration.ofMinutes(5)));
-
-        // User profile cache - 15 minutes (less frequently updated)
-        cacheConfigurations.put("users", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-
-        // Recent listings cache - 2 minutes (frequently accessed, frequently updated)
-        cacheConfigurations.put("recentListings", defaultConfig.entryTtl(Duration.ofMinutes(2)));
-
-        // Categories cache - 1 hour (rarely changes)
-        cacheConfigurations.put("categories", defaultConfig.entryTtl(Duration.ofHours(1)));
-
-        log.info("Configuring Redis cache manager");
-        return RedisCacheManager.builder(connectionFactory)
+        CacheTtls.all().forEach((name, ttl) -> cacheConfigurations.put(name, defaultConfig.entryTtl(ttl)));
+
+        // Serializer per cache: caches with a known value type skip the default-typed JSON
+        AppConfig.Cache props = appConfig.getCache();
+        ObjectMapper typedMapper = typedCacheObjectMapper();
+        TypeFactory types = typedMapper.getTypeFactory();
+        cacheConfigurations.computeIfPresent("listing", (name, config) -> withTypedValues(config, typedMapper,
+                types.constructType(ListingResponse.class), props.getCompressionThresholdBytes()));
+        cacheConfigurations.computeIfPresent("recentListings", (name, config) -> withTypedValues(config, typedMapper,
+                types.constructCollectionType(List.class, ListingSummaryResponse.class), props.getCompressionThresholdBytes()));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
+                .enableStatistics() // Backs the tier=remote cache meters
                 .build();
+        redisCacheManager.initializeCaches();
+
+        // Hot entries are served from a bounded local tier in front of Redis
+        log.info("Configuring two-level cache manager (local max {} entries per cache, TTL cap {}s)",
+                props.getLocalMaxEntries(), props.getLocalTtlSeconds());
+        return new TwoLevelCacheManager(
+                redisCacheManager,
+                new StringRedisTemplate(connectionFactory),
+                props.getLocalMaxEntries(),
+                props.getLocalMaxWeight(),
+                Duration.ofSeconds(props.getLocalTtlSeconds())
+        );
+    }
+
+    /**
+     * Receives invalidations published by any instance (including this one) so every node
+     * drops its local copy of a changed cache entry or listing availability, and STOMP
+     * broadcasts when the Redis broker bridge is enabled.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                      TwoLevelCacheManager cacheManager,
+                                                                      BookingAvailabilityIndex availabilityIndex,
+                                                                      ObjectProvider<RedisBrokerBridge> redisBrokerBridge) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) ->
+                        cacheManager.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        container.addMessageListener((message, pattern) -> {
+            String listingId = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                availabilityIndex.evict(UUID.fromString(listingId));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed availability invalidation: {}", listingId);
+            }
+        }, new ChannelTopic(BookingAvailabilityIndex.INVALIDATION_CHANNEL));
+        redisBrokerBridge.ifAvailable(bridge -> container.addMessageListener((message, pattern) ->
+                        bridge.onBroadcast(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(RedisBrokerBridge.CHANNEL)));
+        return container;
     }
 
     /**
      * Fallback in-memory cache manager when Redis is disabled.
      * Set spring.cache.type=simple in application.yml to use this.
+     * Caches are bounded and expire entries on the same TTLs as Redis.
      */
     @Bean
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "simple")
-    public CacheManager simpleCacheManager() {
-        log.info("Using simple in-memory cache (Redis disabled)");
-        return new ConcurrentMapCacheManager(
-                "listings",
-                "listing",
-                "users",
-                "recentListings",
-                "categories"
-        );
+    public CacheManager simpleCacheManager(AppConfig appConfig) {
+        AppConfig.Cache props = appConfig.getCache();
+        log.info("Using bounded in-memory cache (Redis disabled), max {} entries per cache", props.getLocalMaxEntries());
+        return new LocalCacheManager(CacheTtls.all().keySet(), props.getLocalMaxEntries(), props.getLocalMaxWeight());
     }
 }
@@ -0,0 +1,10 @@
+package com.rentease.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables @Scheduled maintenance jobs (e.g. rating aggregate repair)
+}
@@ -1,15 +1,16 @@
 package com.rentease.config;
 
+import com.rentease.cache.CacheTtls;
+import com.rentease.cache.LocalCacheManager;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
 /**
  * Simple in-memory cache configuration for development/testing
- * when Redis is not available. Uses ConcurrentHashMap-based caching.
+ * when Redis is not available. Uses bounded, expiring in-process caches.
  */
 @Configuration
 @EnableCaching
@@ -17,13 +18,8 @@ import org.springframework.context.annotation.Profile;
 public class SimpleCacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
-                "listings",
-                "listing",
-                "users",
-                "recentListings",
-                "categories"
-        );
+    public CacheManager cacheManager(AppConfig appConfig) {
+        AppConfig.Cache props = appConfig.getCache();
+        return new LocalCacheManager(CacheTtls.all().keySet(), props.getLocalMaxEntries(), props.getLocalMaxWeight());
     }
 }
@@ -1,7 +1,11 @@
 package com.rentease.config;
 
 import com.rentease.security.WebSocketAuthInterceptor;
+import com.rentease.websocket.BrokerMetrics;
+import com.rentease.websocket.RedisBrokerBridge;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -12,15 +16,28 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    private final BrokerMetrics brokerMetrics;
+    private final ObjectProvider<RedisBrokerBridge> redisBrokerBridge;
+    private final AppConfig appConfig;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable simple in-memory broker for subscriptions
         // /topic for broadcast messages, /queue for user-specific messages
-        config.enableSimpleBroker("/topic", "/queue");
+        AppConfig.WebSocket props = appConfig.getWebsocket();
+        switch (props.getBroker()) {
+            case "redis" -> {
+                // In-memory broker per instance, broadcasts fanned out to the others over Redis
+                config.enableSimpleBroker("/topic", "/queue");
+                config.configureBrokerChannel().interceptors(redisBrokerBridge.getObject());
+            }
+            case "simple" -> config.enableSimpleBroker("/topic", "/queue");
+            default -> throw new IllegalStateException("Unknown app.websocket.broker: " + props.getBroker());
+        }
+        config.configureBrokerChannel().interceptors(brokerMetrics);
 
         // Prefix for messages from client to server
         config.setApplicationDestinationPrefixes("/app");
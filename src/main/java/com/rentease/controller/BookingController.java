@@ -46,9 +46,10 @@ public class BookingController {
                         @CurrentUser UserPrincipal currentUser,
                         @RequestParam(value = "status", required = false) String status,
                         @RequestParam(value = "page", defaultValue = "0") int page,
-                        @RequestParam(value = "size", defaultValue = "20") int size) {
+                        @RequestParam(value = "size", defaultValue = "20") int size,
+                        @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal) {
                 PagedResponse<BookingResponse> response = bookingService.getMyBookings(
-                                currentUser.getId(), status, page, size);
+                                currentUser.getId(), status, page, size, withTotal);
                 return ResponseEntity.ok(response);
         }
 
@@ -58,9 +59,10 @@ public class BookingController {
                         @CurrentUser UserPrincipal currentUser,
                         @RequestParam(value = "status", required = false) String status,
                         @RequestParam(value = "page", defaultValue = "0") int page,
-                        @RequestParam(value = "size", defaultValue = "20") int size) {
+                        @RequestParam(value = "size", defaultValue = "20") int size,
+                        @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal) {
                 PagedResponse<BookingResponse> response = bookingService.getBookingRequests(
-                                currentUser.getId(), status, page, size);
+                                currentUser.getId(), status, page, size, withTotal);
                 return ResponseEntity.ok(response);
         }
 
@@ -40,9 +40,10 @@ public class FavoriteController {
     public ResponseEntity<PagedResponse<ListingSummaryResponse>> getFavorites(
             @CurrentUser UserPrincipal currentUser,
             @RequestParam(value = "page", required = false, defaultValue = "0") int page,
-            @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
+            @RequestParam(value = "size", required = false, defaultValue = "20") int size,
+            @RequestParam(value = "withTotal", required = false, defaultValue = "true") boolean withTotal) {
         PagedResponse<ListingSummaryResponse> response = favoriteService.getFavorites(
-                currentUser.getId(), page, size);
+                currentUser.getId(), page, size, withTotal);
         return ResponseEntity.ok(response);
     }
 
@@ -12,10 +12,12 @@ import com.rentease.security.UserPrincipal;
 import com.rentease.service.ListingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -42,9 +44,20 @@ public class ListingController {
             @RequestParam(value = "maxPrice", required = false) Integer maxPrice,
             @RequestParam(value = "sort", required = false, defaultValue = "newest") String sort,
             @RequestParam(value = "page", required = false, defaultValue = "0") int page,
-            @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
+            @RequestParam(value = "size", required = false, defaultValue = "20") int size,
+            @RequestParam(value = "startDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", required = false, defaultValue = "true") boolean withTotal) {
+        // Any cursor parameter (even an empty one for the first page) switches to keyset pagination
+        if (cursor != null) {
+            return ResponseEntity.ok(listingService.getListingsByCursor(
+                    category, q, startDate, endDate, sort, cursor, size));
+        }
         PagedResponse<ListingSummaryResponse> response = listingService.getListings(
-                category, q, minPrice, maxPrice, sort, page, size);
+                category, q, minPrice, maxPrice, startDate, endDate, sort, page, size, withTotal);
         return ResponseEntity.ok(response);
     }
 
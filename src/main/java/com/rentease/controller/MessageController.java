@@ -29,9 +29,10 @@ public class MessageController {
         public ResponseEntity<PagedResponse<ConversationResponse>> getConversations(
                         @CurrentUser UserPrincipal currentUser,
                         @RequestParam(value = "page", defaultValue = "0") int page,
-                        @RequestParam(value = "size", defaultValue = "20") int size) {
+                        @RequestParam(value = "size", defaultValue = "20") int size,
+                        @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal) {
                 PagedResponse<ConversationResponse> response = messageService.getConversations(
-                                currentUser.getId(), page, size);
+                                currentUser.getId(), page, size, withTotal);
                 return ResponseEntity.ok(response);
         }
 
@@ -50,7 +51,13 @@ public class MessageController {
                         @CurrentUser UserPrincipal currentUser,
                         @PathVariable("id") UUID id,
                         @RequestParam(value = "page", defaultValue = "0") int page,
-                        @RequestParam(value = "size", defaultValue = "50") int size) {
+                        @RequestParam(value = "size", defaultValue = "50") int size,
+                        @RequestParam(value = "before", required = false) String before) {
+                // Any before parameter (even an empty one for the newest page) switches to keyset pagination
+                if (before != null) {
+                        return ResponseEntity.ok(messageService.getMessagesBefore(
+                                        currentUser.getId(), id, before, size));
+                }
                 PagedResponse<MessageResponse> response = messageService.getMessages(
                                 currentUser.getId(), id, page, size);
                 return ResponseEntity.ok(response);
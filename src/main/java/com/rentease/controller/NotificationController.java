@@ -25,9 +25,10 @@ public class NotificationController {
     public ResponseEntity<PagedResponse<NotificationResponse>> getNotifications(
             @CurrentUser UserPrincipal currentUser,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "20") int size) {
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal) {
         PagedResponse<NotificationResponse> response = notificationService.getNotifications(
-                currentUser.getId(), page, size);
+                currentUser.getId(), page, size, withTotal);
         return ResponseEntity.ok(response);
     }
 
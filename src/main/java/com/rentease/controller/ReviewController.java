@@ -46,8 +46,9 @@ public class ReviewController {
     public ResponseEntity<PagedResponse<ReviewResponse>> getListingReviews(
             @PathVariable("listingId") UUID listingId,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        PagedResponse<ReviewResponse> response = reviewService.getListingReviews(listingId, page, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal) {
+        PagedResponse<ReviewResponse> response = reviewService.getListingReviews(listingId, page, size, withTotal);
         return ResponseEntity.ok(response);
     }
 
@@ -63,8 +64,9 @@ public class ReviewController {
     public ResponseEntity<PagedResponse<ReviewResponse>> getUserReviews(
             @PathVariable("userId") UUID userId,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        PagedResponse<ReviewResponse> response = reviewService.getUserReviews(userId, page, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal) {
+        PagedResponse<ReviewResponse> response = reviewService.getUserReviews(userId, page, size, withTotal);
         return ResponseEntity.ok(response);
     }
 
@@ -73,8 +75,9 @@ public class ReviewController {
     public ResponseEntity<PagedResponse<ReviewResponse>> getMyReviews(
             @CurrentUser UserPrincipal currentUser,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        PagedResponse<ReviewResponse> response = reviewService.getMyReviews(currentUser.getId(), page, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "withTotal", defaultValue = "true") boolean withTotal) {
+        PagedResponse<ReviewResponse> response = reviewService.getMyReviews(currentUser.getId(), page, size, withTotal);
         return ResponseEntity.ok(response);
     }
 
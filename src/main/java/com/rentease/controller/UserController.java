@@ -68,8 +68,9 @@ public class UserController {
     public ResponseEntity<PagedResponse<ReviewResponse>> getUserReviews(
             @PathVariable("id") UUID id,
             @RequestParam(value = "page", required = false, defaultValue = "0") int page,
-            @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
-        PagedResponse<ReviewResponse> response = reviewService.getUserReviews(id, page, size);
+            @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+            @RequestParam(value = "withTotal", required = false, defaultValue = "true") boolean withTotal) {
+        PagedResponse<ReviewResponse> response = reviewService.getUserReviews(id, page, size, withTotal);
         return ResponseEntity.ok(response);
     }
 
@@ -38,20 +38,16 @@ public class ConversationResponse {
         private Boolean idVerified;
     }
 
-    public static ConversationResponse fromEntity(Conversation conversation, UUID currentUserId, Long unreadCount) {
+    // Reads only the conversation row, its listing and participants; the image is the denormalized primary one
+    public static ConversationResponse fromEntity(Conversation conversation, UUID currentUserId) {
         User otherUser = conversation.getOtherParticipant(currentUserId);
 
-        String primaryImage = null;
-        if (conversation.getListing().getImages() != null && !conversation.getListing().getImages().isEmpty()) {
-            primaryImage = conversation.getListing().getImages().get(0).getImageUrl();
-        }
-
         return ConversationResponse.builder()
                 .id(conversation.getId())
                 .listing(ListingInfo.builder()
                         .id(conversation.getListing().getId())
                         .title(conversation.getListing().getTitle())
-                        .primaryImage(primaryImage)
+                        .primaryImage(conversation.getListing().getPrimaryImageUrl())
                         .build())
                 .otherParticipant(ParticipantInfo.builder()
                         .id(otherUser.getId())
@@ -63,7 +59,7 @@ public class ConversationResponse {
                 .bookingId(conversation.getBooking() != null ? conversation.getBooking().getId() : null)
                 .lastMessagePreview(conversation.getLastMessagePreview())
                 .lastMessageAt(conversation.getLastMessageAt())
-                .unreadCount(unreadCount)
+                .unreadCount((long) conversation.getUnreadCountFor(currentUserId))
                 .createdAt(conversation.getCreatedAt())
                 .build();
     }
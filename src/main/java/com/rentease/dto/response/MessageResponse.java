@@ -1,6 +1,7 @@
 package com.rentease.dto.response;
 
 import com.rentease.entity.Message;
+import com.rentease.entity.User;
 import lombok.Builder;
 import lombok.Data;
 
@@ -28,14 +29,19 @@ public class MessageResponse {
     }
 
     public static MessageResponse fromEntity(Message message) {
+        return fromEntity(message, message.getSender());
+    }
+
+    // Takes the sender separately so callers can supply an already loaded user
+    public static MessageResponse fromEntity(Message message, User sender) {
         return MessageResponse.builder()
                 .id(message.getId())
                 .conversationId(message.getConversation().getId())
                 .sender(SenderInfo.builder()
-                        .id(message.getSender().getId())
-                        .firstName(message.getSender().getFirstName())
-                        .lastName(message.getSender().getLastName())
-                        .avatarUrl(message.getSender().getAvatarUrl())
+                        .id(sender.getId())
+                        .firstName(sender.getFirstName())
+                        .lastName(sender.getLastName())
+                        .avatarUrl(sender.getAvatarUrl())
                         .build())
                 .content(message.getContent())
                 .isRead(message.isRead())
@@ -1,9 +1,12 @@
 package com.rentease.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -20,11 +23,51 @@ public class PagedResponse<T> {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Pagination {
-        private int page;
+        private Integer page;
         private int size;
-        private long totalElements;
-        private int totalPages;
+        private Long totalElements;
+        private Integer totalPages;
+        private Boolean totalEstimated; // True when totalElements is a cached count and may lag behind
+        private Boolean hasNext;
+        private String nextCursor; // Opaque cursor for keyset pagination
+    }
+
+    /**
+     * Builds the pagination block from a Spring Data slice. Totals are only included when the
+     * slice is a {@link Page}, i.e. when the caller asked for (and paid for) a COUNT query.
+     */
+    public static <T> PagedResponse<T> of(List<T> data, Slice<?> slice) {
+        Pagination.PaginationBuilder pagination = Pagination.builder()
+                .page(slice.getNumber())
+                .size(slice.getSize());
+
+        if (slice instanceof Page<?> page) {
+            pagination.totalElements(page.getTotalElements())
+                    .totalPages(page.getTotalPages());
+        } else {
+            pagination.hasNext(slice.hasNext());
+        }
+
+        return PagedResponse.<T>builder()
+                .data(data)
+                .pagination(pagination.build())
+                .build();
+    }
+
+    public static <T> PagedResponse<T> ofEstimate(List<T> data, Slice<?> slice, long estimatedTotal) {
+        return PagedResponse.<T>builder()
+                .data(data)
+                .pagination(Pagination.builder()
+                        .page(slice.getNumber())
+                        .size(slice.getSize())
+                        .totalElements(estimatedTotal)
+                        .totalPages((int) Math.ceil((double) estimatedTotal / slice.getSize()))
+                        .totalEstimated(true)
+                        .hasNext(slice.hasNext())
+                        .build())
+                .build();
     }
 
     public static <T> PagedResponse<T> of(List<T> data, int page, int size, long totalElements, int totalPages) {
@@ -38,4 +81,15 @@ public class PagedResponse<T> {
                         .build())
                 .build();
     }
+
+    public static <T> PagedResponse<T> ofCursor(List<T> data, int size, String nextCursor) {
+        return PagedResponse.<T>builder()
+                .data(data)
+                .pagination(Pagination.builder()
+                        .size(size)
+                        .hasNext(nextCursor != null)
+                        .nextCursor(nextCursor)
+                        .build())
+                .build();
+    }
 }
@@ -21,6 +21,8 @@ import java.util.UUID;
 @Builder
 public class Conversation {
 
+    public static final int PREVIEW_LENGTH = 100;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -41,12 +43,22 @@ public class Conversation {
     @JoinColumn(name = "booking_id")
     private Booking booking; // Optional link to a booking
 
-    @Column(name = "last_message_at")
+    // Last-message and unread columns are maintained by ConversationRepository.recordMessage / clearUnread;
+    // they are never written back from the entity
+    @Column(name = "last_message_at", updatable = false)
     private LocalDateTime lastMessageAt;
 
-    @Column(name = "last_message_preview", length = 100)
+    @Column(name = "last_message_preview", length = PREVIEW_LENGTH, updatable = false)
     private String lastMessagePreview;
 
+    @Column(name = "participant1_unread", nullable = false, updatable = false)
+    @Builder.Default
+    private int participant1Unread = 0;
+
+    @Column(name = "participant2_unread", nullable = false, updatable = false)
+    @Builder.Default
+    private int participant2Unread = 0;
+
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("createdAt ASC")
     private List<Message> messages = new ArrayList<>();
@@ -65,6 +77,21 @@ public class Conversation {
                (participant2 != null && participant2.getId().equals(userId));
     }
 
+    // Mirror a recorded message on this instance, e.g. for the response to the sender
+    public void applyLastMessage(Message message) {
+        lastMessageAt = message.getCreatedAt();
+        lastMessagePreview = previewOf(message.getContent());
+    }
+
+    public static String previewOf(String content) {
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+    }
+
+    // Unread messages for the given participant
+    public int getUnreadCountFor(UUID userId) {
+        return participant1.getId().equals(userId) ? participant1Unread : participant2Unread;
+    }
+
     // Get the other participant
     public User getOtherParticipant(UUID userId) {
         if (participant1.getId().equals(userId)) {
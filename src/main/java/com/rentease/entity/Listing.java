@@ -10,6 +10,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
@@ -73,6 +74,20 @@ public class Listing {
     @Builder.Default
     private Boolean active = true;
 
+    // Summary snapshot, kept in sync by ListingService / UserService (see V14)
+    @Column(name = "primary_image_url", length = 500)
+    private String primaryImageUrl;
+
+    @Column(name = "owner_first_name", length = 100)
+    private String ownerFirstName;
+
+    @Column(name = "owner_id_verified", nullable = false)
+    @Builder.Default
+    private Boolean ownerIdVerified = false;
+
+    @Column(name = "owner_average_rating", precision = 3, scale = 2, updatable = false)
+    private BigDecimal ownerAverageRating; // Kept in sync with users.average_rating by a trigger (V26)
+
     @OneToMany(mappedBy = "listing", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("displayOrder ASC")
     @Builder.Default
@@ -96,11 +111,15 @@ public class Listing {
         image.setListing(null);
     }
 
-    public String getPrimaryImageUrl() {
-        return images.stream()
-                .filter(img -> img.getDisplayOrder() == 0)
-                .findFirst()
+    public Double getOwnerAverageRatingAsDouble() {
+        return ownerAverageRating != null ? ownerAverageRating.doubleValue() : null;
+    }
+
+    // Lowest display order wins, the same rule V14 used to backfill the column
+    public void refreshPrimaryImageUrl() {
+        primaryImageUrl = images.stream()
+                .min(Comparator.comparing(ListingImage::getDisplayOrder))
                 .map(ListingImage::getImageUrl)
-                .orElse(images.isEmpty() ? null : images.get(0).getImageUrl());
+                .orElse(null);
     }
 }
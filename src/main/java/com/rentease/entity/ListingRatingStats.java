@@ -0,0 +1,62 @@
+package com.rentease.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "listing_rating_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListingRatingStats {
+
+    @Id
+    @Column(name = "listing_id")
+    private UUID listingId;
+
+    @Column(name = "review_count", nullable = false)
+    private Integer reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Integer ratingSum;
+
+    @Column(name = "rating_1", nullable = false)
+    private Integer rating1;
+
+    @Column(name = "rating_2", nullable = false)
+    private Integer rating2;
+
+    @Column(name = "rating_3", nullable = false)
+    private Integer rating3;
+
+    @Column(name = "rating_4", nullable = false)
+    private Integer rating4;
+
+    @Column(name = "rating_5", nullable = false)
+    private Integer rating5;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Double getAverageRating() {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : null;
+    }
+
+    public int getCountForRating(int rating) {
+        return switch (rating) {
+            case 1 -> rating1;
+            case 2 -> rating2;
+            case 3 -> rating3;
+            case 4 -> rating4;
+            case 5 -> rating5;
+            default -> 0;
+        };
+    }
+}
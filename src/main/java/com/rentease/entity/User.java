@@ -29,6 +29,13 @@ public class User {
     @Column(name = "password_hash", nullable = false, length = 255)
     private String passwordHash;
 
+    @Column(name = "token_version", nullable = false)
+    @Builder.Default
+    private int tokenVersion = 0; // Tokens issued with an older version are rejected
+
+    @Column(name = "tokens_revoked_at")
+    private LocalDateTime tokensRevokedAt;
+
     @Column(name = "first_name", nullable = false, length = 100)
     private String firstName;
 
@@ -75,10 +82,11 @@ public class User {
     @Column(name = "password_reset_expires")
     private LocalDateTime passwordResetExpires;
 
-    @Column(name = "average_rating", precision = 3, scale = 2)
+    // Maintained by UserRepository.addRating and the nightly recompute; never written back from the entity
+    @Column(name = "average_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal averageRating;
 
-    @Column(name = "total_reviews")
+    @Column(name = "total_reviews", updatable = false)
     @Builder.Default
     private Integer totalReviews = 0;
 
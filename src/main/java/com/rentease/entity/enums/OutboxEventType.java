@@ -0,0 +1,13 @@
+package com.rentease.entity.enums;
+
+public enum OutboxEventType {
+    // Booking emails (aggregate = booking id)
+    BOOKING_REQUESTED_EMAIL,
+    BOOKING_APPROVED_EMAIL,
+    BOOKING_DECLINED_EMAIL,
+    BOOKING_CANCELLED_EMAIL, // payload: cancelledBy
+    BOOKING_COMPLETED_EMAIL,
+
+    // Message emails (aggregate = conversation id)
+    NEW_MESSAGE_EMAIL // payload: recipientId, recipientEmail, recipientFirstName, senderFirstName, senderLastName, listingTitle
+}
@@ -43,7 +43,7 @@ public class ListingMapper {
                 .pickupLocation(listing.getPickupLocation())
                 .available(listing.getAvailable())
                 .primaryImage(listing.getPrimaryImageUrl())
-                .owner(mapOwnerSummary(listing.getOwner()))
+                .owner(mapOwnerSummary(listing))
                 .build();
     }
 
@@ -64,19 +64,18 @@ public class ListingMapper {
                 .lastName(owner.getPublicLastName())
                 .avatarUrl(owner.getAvatarUrl())
                 .idVerified(owner.isIdVerified())
-                // TODO: Add average rating and total reviews when Review entity is implemented
-                .averageRating(null)
-                .totalReviews(0)
+                .averageRating(owner.getAverageRatingAsDouble())
+                .totalReviews(owner.getTotalReviews())
                 .build();
     }
 
-    private ListingSummaryResponse.OwnerSummary mapOwnerSummary(User owner) {
+    // Built from the denormalized snapshot on the listing so the owner proxy is never initialized
+    private ListingSummaryResponse.OwnerSummary mapOwnerSummary(Listing listing) {
         return ListingSummaryResponse.OwnerSummary.builder()
-                .id(owner.getId())
-                .firstName(owner.getFirstName())
-                .idVerified(owner.isIdVerified())
-                // TODO: Add average rating when Review entity is implemented
-                .averageRating(null)
+                .id(listing.getOwner().getId())
+                .firstName(listing.getOwnerFirstName())
+                .idVerified(listing.getOwnerIdVerified())
+                .averageRating(listing.getOwnerAverageRatingAsDouble())
                 .build();
     }
 }
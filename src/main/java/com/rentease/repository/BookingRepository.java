@@ -4,6 +4,7 @@ import com.rentease.entity.Booking;
 import com.rentease.entity.enums.BookingStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -75,6 +76,34 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
             @Param("fromDate") LocalDate fromDate
     );
 
+    // Blocked (startDate, endDate) pairs for a listing, used to load BookingAvailabilityIndex
+    @Query("SELECT b.startDate, b.endDate FROM Booking b " +
+            "WHERE b.listing.id = :listingId " +
+            "AND b.status IN ('APPROVED', 'ACTIVE') " +
+            "ORDER BY b.startDate")
+    List<Object[]> findBlockedRangesForListing(@Param("listingId") UUID listingId);
+
+    // Count-free (Slice) variants of the paged finders above, used when the client passes withTotal=false
+    @Query("SELECT b FROM Booking b WHERE b.renter.id = :renterId ORDER BY b.createdAt DESC")
+    Slice<Booking> sliceByRenterId(@Param("renterId") UUID renterId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.listing.owner.id = :ownerId ORDER BY b.createdAt DESC")
+    Slice<Booking> sliceByOwnerId(@Param("ownerId") UUID ownerId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.renter.id = :renterId AND b.status = :status ORDER BY b.createdAt DESC")
+    Slice<Booking> sliceByRenterIdAndStatus(
+            @Param("renterId") UUID renterId,
+            @Param("status") BookingStatus status,
+            Pageable pageable
+    );
+
+    @Query("SELECT b FROM Booking b WHERE b.listing.owner.id = :ownerId AND b.status = :status ORDER BY b.createdAt DESC")
+    Slice<Booking> sliceByOwnerIdAndStatus(
+            @Param("ownerId") UUID ownerId,
+            @Param("status") BookingStatus status,
+            Pageable pageable
+    );
+
     // Count pending requests for owner (for notifications)
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.listing.owner.id = :ownerId AND b.status = 'REQUESTED'")
     long countPendingRequestsForOwner(@Param("ownerId") UUID ownerId);
@@ -3,22 +3,66 @@ package com.rentease.repository;
 import com.rentease.entity.Conversation;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, UUID> {
 
-    // Find all conversations for a user
+    // Find all conversations for a user, with everything the inbox shows fetched in the same query
+    @Query(value = "SELECT c FROM Conversation c " +
+            "JOIN FETCH c.listing " +
+            "JOIN FETCH c.participant1 " +
+            "JOIN FETCH c.participant2 " +
+            "WHERE c.participant1.id = :userId OR c.participant2.id = :userId " +
+            "ORDER BY c.lastMessageAt DESC NULLS LAST",
+            countQuery = "SELECT COUNT(c) FROM Conversation c " +
+                    "WHERE c.participant1.id = :userId OR c.participant2.id = :userId")
+    Page<Conversation> findByParticipant(@Param("userId") UUID userId, Pageable pageable);
+
+    // Count-free variant of findByParticipant, used when the client passes withTotal=false
     @Query("SELECT c FROM Conversation c " +
+            "JOIN FETCH c.listing " +
+            "JOIN FETCH c.participant1 " +
+            "JOIN FETCH c.participant2 " +
             "WHERE c.participant1.id = :userId OR c.participant2.id = :userId " +
             "ORDER BY c.lastMessageAt DESC NULLS LAST")
-    Page<Conversation> findByParticipant(@Param("userId") UUID userId, Pageable pageable);
+    Slice<Conversation> sliceByParticipant(@Param("userId") UUID userId, Pageable pageable);
+
+    // Record a new message: last-message fields for the inbox, and one more unread for the recipient
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.lastMessageAt = :sentAt, " +
+            "c.lastMessagePreview = :preview, " +
+            "c.updatedAt = CURRENT_TIMESTAMP, " +
+            "c.participant1Unread = c.participant1Unread + CASE WHEN c.participant1.id = :recipientId THEN 1 ELSE 0 END, " +
+            "c.participant2Unread = c.participant2Unread + CASE WHEN c.participant2.id = :recipientId THEN 1 ELSE 0 END " +
+            "WHERE c.id = :conversationId")
+    int recordMessage(
+            @Param("conversationId") UUID conversationId,
+            @Param("recipientId") UUID recipientId,
+            @Param("sentAt") LocalDateTime sentAt,
+            @Param("preview") String preview
+    );
+
+    // The reader has seen the messages just marked read; ones arriving concurrently stay unread
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.participant1Unread = CASE WHEN c.participant1.id = :userId " +
+            "THEN GREATEST(c.participant1Unread - :marked, 0) ELSE c.participant1Unread END, " +
+            "c.participant2Unread = CASE WHEN c.participant2.id = :userId " +
+            "THEN GREATEST(c.participant2Unread - :marked, 0) ELSE c.participant2Unread END " +
+            "WHERE c.id = :conversationId")
+    int clearUnread(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId,
+                    @Param("marked") int marked);
 
     // Find conversation by id with participants loaded
     @Query("SELECT c FROM Conversation c " +
@@ -3,6 +3,7 @@ package com.rentease.repository;
 import com.rentease.entity.Favorite;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,6 +25,10 @@ public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
     @Query("SELECT f FROM Favorite f JOIN FETCH f.listing l WHERE f.user.id = :userId AND l.active = true ORDER BY f.createdAt DESC")
     Page<Favorite> findByUserIdWithListing(@Param("userId") UUID userId, Pageable pageable);
 
+    // Count-free variant of findByUserIdWithListing, used when the client passes withTotal=false
+    @Query("SELECT f FROM Favorite f JOIN FETCH f.listing l WHERE f.user.id = :userId AND l.active = true ORDER BY f.createdAt DESC")
+    Slice<Favorite> sliceByUserIdWithListing(@Param("userId") UUID userId, Pageable pageable);
+
     @Query("SELECT f.listing.id FROM Favorite f WHERE f.user.id = :userId")
     List<UUID> findListingIdsByUserId(@Param("userId") UUID userId);
 
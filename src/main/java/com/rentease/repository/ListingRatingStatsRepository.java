@@ -0,0 +1,37 @@
+package com.rentease.repository;
+
+import com.rentease.entity.ListingRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ListingRatingStatsRepository extends JpaRepository<ListingRatingStats, UUID> {
+
+    // Atomically add one rating to the listing's aggregates, creating the row on first review
+    @Modifying
+    @Query(value = "INSERT INTO listing_rating_stats " +
+            "(listing_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5, updated_at) " +
+            "VALUES (:listingId, 1, :rating, " +
+            "CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+            "CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+            "CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+            "CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+            "CASE WHEN :rating = 5 THEN 1 ELSE 0 END, " +
+            "CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (listing_id) DO UPDATE SET " +
+            "review_count = listing_rating_stats.review_count + 1, " +
+            "rating_sum = listing_rating_stats.rating_sum + EXCLUDED.rating_sum, " +
+            "rating_1 = listing_rating_stats.rating_1 + EXCLUDED.rating_1, " +
+            "rating_2 = listing_rating_stats.rating_2 + EXCLUDED.rating_2, " +
+            "rating_3 = listing_rating_stats.rating_3 + EXCLUDED.rating_3, " +
+            "rating_4 = listing_rating_stats.rating_4 + EXCLUDED.rating_4, " +
+            "rating_5 = listing_rating_stats.rating_5 + EXCLUDED.rating_5, " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    void addRating(@Param("listingId") UUID listingId, @Param("rating") int rating);
+}
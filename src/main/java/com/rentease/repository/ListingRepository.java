@@ -4,11 +4,15 @@ import com.rentease.entity.Listing;
 import com.rentease.entity.enums.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -59,6 +63,43 @@ public interface ListingRepository extends JpaRepository<Listing, UUID> {
            "ORDER BY l.createdAt DESC")
     Page<Listing> findByPriceRange(@Param("minPrice") Integer minPrice, @Param("maxPrice") Integer maxPrice, Pageable pageable);
 
+    // Count-free (Slice) variants of the browse/search queries above, used when the client passes withTotal=false
+    @Query("SELECT l FROM Listing l WHERE l.active = true AND l.available = true ORDER BY l.createdAt DESC")
+    Slice<Listing> sliceAllActive(Pageable pageable);
+
+    @Query("SELECT l FROM Listing l WHERE l.active = true AND l.available = true AND l.category = :category ORDER BY l.createdAt DESC")
+    Slice<Listing> sliceByCategory(@Param("category") Category category, Pageable pageable);
+
+    @Query(value = "SELECT * FROM listings l WHERE l.active = true AND l.available = true " +
+           "AND l.search_vector @@ plainto_tsquery('english', :query) " +
+           "ORDER BY ts_rank(l.search_vector, plainto_tsquery('english', :query)) DESC, l.created_at DESC",
+           nativeQuery = true)
+    Slice<Listing> sliceByQuery(@Param("query") String query, Pageable pageable);
+
+    @Query(value = "SELECT * FROM listings l WHERE l.active = true AND l.available = true " +
+           "AND l.category = :category " +
+           "AND l.search_vector @@ plainto_tsquery('english', :query) " +
+           "ORDER BY ts_rank(l.search_vector, plainto_tsquery('english', :query)) DESC, l.created_at DESC",
+           nativeQuery = true)
+    Slice<Listing> sliceByCategoryAndQuery(@Param("category") String category, @Param("query") String query, Pageable pageable);
+
+    @Query("SELECT l FROM Listing l WHERE l.active = true AND l.available = true " +
+           "AND (LOWER(l.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "ORDER BY l.createdAt DESC")
+    Slice<Listing> sliceByQueryFallback(@Param("query") String query, Pageable pageable);
+
+    @Query("SELECT l FROM Listing l WHERE l.active = true AND l.available = true " +
+           "AND l.category = :category " +
+           "AND (LOWER(l.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "ORDER BY l.createdAt DESC")
+    Slice<Listing> sliceByCategoryAndQueryFallback(@Param("category") Category category, @Param("query") String query, Pageable pageable);
+
+    // Same rows as findAllActive; ListingService caches the result for unfiltered browse totals
+    @Query("SELECT COUNT(l) FROM Listing l WHERE l.active = true AND l.available = true")
+    long countAllActive();
+
     List<Listing> findByOwnerIdAndActiveTrue(UUID ownerId);
 
     Page<Listing> findByOwnerIdAndActiveTrue(UUID ownerId, Pageable pageable);
@@ -72,4 +113,120 @@ public interface ListingRepository extends JpaRepository<Listing, UUID> {
 
     @Query("SELECT l FROM Listing l WHERE l.active = true AND l.available = true ORDER BY l.createdAt DESC")
     List<Listing> findRecentListings(Pageable pageable);
+
+    // Listings free for the whole [startDate, endDate] range: anti-join against APPROVED/ACTIVE bookings,
+    // served by the partial GiST index behind the bookings_no_overlap constraint
+    @Query("SELECT l FROM Listing l WHERE l.active = true AND l.available = true " +
+           "AND (:category IS NULL OR l.category = :category) " +
+           "AND (:query IS NULL OR LOWER(l.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.listing = l " +
+           "AND b.status IN ('APPROVED', 'ACTIVE') AND b.startDate <= :endDate AND b.endDate >= :startDate)")
+    Page<Listing> findAvailableBetween(@Param("category") Category category, @Param("query") String query,
+                                       @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                       Pageable pageable);
+
+    @Query("SELECT l FROM Listing l WHERE l.active = true AND l.available = true " +
+           "AND (:category IS NULL OR l.category = :category) " +
+           "AND (:query IS NULL OR LOWER(l.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.listing = l " +
+           "AND b.status IN ('APPROVED', 'ACTIVE') AND b.startDate <= :endDate AND b.endDate >= :startDate)")
+    Slice<Listing> sliceAvailableBetween(@Param("category") Category category, @Param("query") String query,
+                                         @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                         Pageable pageable);
+
+    // Filters shared by the keyset browse queries below; null dates skip the availability filter
+    String BROWSE_FILTER = "SELECT l FROM Listing l WHERE l.active = true AND l.available = true " +
+           "AND (:category IS NULL OR l.category = :category) " +
+           "AND (:query IS NULL OR LOWER(l.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "AND (:startDate IS NULL OR NOT EXISTS (SELECT 1 FROM Booking b WHERE b.listing = l " +
+           "AND b.status IN ('APPROVED', 'ACTIVE') AND b.startDate <= :endDate AND b.endDate >= :startDate)) ";
+
+    // Keyset (seek) pagination - seeks past the last row of the previous page instead of using OFFSET,
+    // and returns a List so no COUNT query is run. The *First queries return the first page; the *After
+    // queries take the sort key and id of the last row seen. Their leading "<=" / ">=" conjunct bounds
+    // the index scan at the cursor, so a deep page costs the same as the first one.
+    @Query(BROWSE_FILTER + "ORDER BY l.createdAt DESC, l.id DESC")
+    List<Listing> findNewestFirst(@Param("category") Category category, @Param("query") String query,
+                                  @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                  Pageable pageable);
+
+    @Query(BROWSE_FILTER +
+           "AND l.createdAt <= :createdAt AND (l.createdAt < :createdAt OR l.id < :id) " +
+           "ORDER BY l.createdAt DESC, l.id DESC")
+    List<Listing> findNewestAfter(@Param("category") Category category, @Param("query") String query,
+                                  @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                  @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                  Pageable pageable);
+
+    @Query(BROWSE_FILTER + "ORDER BY l.createdAt ASC, l.id ASC")
+    List<Listing> findOldestFirst(@Param("category") Category category, @Param("query") String query,
+                                  @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                  Pageable pageable);
+
+    @Query(BROWSE_FILTER +
+           "AND l.createdAt >= :createdAt AND (l.createdAt > :createdAt OR l.id > :id) " +
+           "ORDER BY l.createdAt ASC, l.id ASC")
+    List<Listing> findOldestAfter(@Param("category") Category category, @Param("query") String query,
+                                  @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                  @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                  Pageable pageable);
+
+    @Query(BROWSE_FILTER + "ORDER BY l.pricePerDay ASC, l.id ASC")
+    List<Listing> findCheapestFirst(@Param("category") Category category, @Param("query") String query,
+                                    @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                    Pageable pageable);
+
+    @Query(BROWSE_FILTER +
+           "AND l.pricePerDay >= :price AND (l.pricePerDay > :price OR l.id > :id) " +
+           "ORDER BY l.pricePerDay ASC, l.id ASC")
+    List<Listing> findCheapestAfter(@Param("category") Category category, @Param("query") String query,
+                                    @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                    @Param("price") Integer price, @Param("id") UUID id,
+                                    Pageable pageable);
+
+    @Query(BROWSE_FILTER + "ORDER BY l.pricePerDay DESC, l.id DESC")
+    List<Listing> findPriciestFirst(@Param("category") Category category, @Param("query") String query,
+                                    @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                    Pageable pageable);
+
+    @Query(BROWSE_FILTER +
+           "AND l.pricePerDay <= :price AND (l.pricePerDay < :price OR l.id < :id) " +
+           "ORDER BY l.pricePerDay DESC, l.id DESC")
+    List<Listing> findPriciestAfter(@Param("category") Category category, @Param("query") String query,
+                                    @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                    @Param("price") Integer price, @Param("id") UUID id,
+                                    Pageable pageable);
+
+    // Full-text keyset search ordered by (ts_rank, id). Use Float.MAX_VALUE as the rank for the first page.
+    @Query(value = "SELECT * FROM listings l WHERE l.active = true AND l.available = true " +
+           "AND l.search_vector @@ plainto_tsquery('english', :query) " +
+           "AND (ts_rank(l.search_vector, plainto_tsquery('english', :query)) < :rank " +
+           "OR (ts_rank(l.search_vector, plainto_tsquery('english', :query)) = :rank AND l.id < :id)) " +
+           "ORDER BY ts_rank(l.search_vector, plainto_tsquery('english', :query)) DESC, l.id DESC",
+           nativeQuery = true)
+    List<Listing> searchByQueryAfter(@Param("query") String query, @Param("rank") Float rank,
+                                     @Param("id") UUID id, Pageable pageable);
+
+    @Query(value = "SELECT * FROM listings l WHERE l.active = true AND l.available = true " +
+           "AND l.category = :category " +
+           "AND l.search_vector @@ plainto_tsquery('english', :query) " +
+           "AND (ts_rank(l.search_vector, plainto_tsquery('english', :query)) < :rank " +
+           "OR (ts_rank(l.search_vector, plainto_tsquery('english', :query)) = :rank AND l.id < :id)) " +
+           "ORDER BY ts_rank(l.search_vector, plainto_tsquery('english', :query)) DESC, l.id DESC",
+           nativeQuery = true)
+    List<Listing> searchByCategoryAndQueryAfter(@Param("category") String category, @Param("query") String query,
+                                                @Param("rank") Float rank, @Param("id") UUID id,
+                                                Pageable pageable);
+
+    // Rank of a single listing for a query, used to build the cursor for the last row of a page
+    @Query(value = "SELECT ts_rank(l.search_vector, plainto_tsquery('english', :query)) FROM listings l WHERE l.id = :id",
+           nativeQuery = true)
+    Float getSearchRank(@Param("id") UUID id, @Param("query") String query);
+
+    @Modifying
+    @Query("UPDATE Listing l SET l.ownerFirstName = :firstName WHERE l.owner.id = :ownerId")
+    int updateOwnerFirstName(@Param("ownerId") UUID ownerId, @Param("firstName") String firstName);
 }
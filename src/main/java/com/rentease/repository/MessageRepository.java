@@ -10,6 +10,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -22,6 +24,29 @@ public interface MessageRepository extends JpaRepository<Message, UUID> {
             "ORDER BY m.createdAt DESC")
     Page<Message> findByConversationId(@Param("conversationId") UUID conversationId, Pageable pageable);
 
+    // Keyset variant of findByConversationId: the newest messages, for the first page.
+    // Senders are not joined; the caller resolves them from the conversation's participants.
+    @Query("SELECT m FROM Message m " +
+            "WHERE m.conversation.id = :conversationId " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatest(@Param("conversationId") UUID conversationId, Pageable pageable);
+
+    // Messages older than the given position, newest first. The "<=" conjunct bounds the index scan at the cursor.
+    @Query("SELECT m FROM Message m " +
+            "WHERE m.conversation.id = :conversationId " +
+            "AND m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR m.id < :id) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findBefore(
+            @Param("conversationId") UUID conversationId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable
+    );
+
+    // Position of a message in its conversation, for a before=<messageId> cursor
+    @Query("SELECT m.createdAt FROM Message m WHERE m.id = :id AND m.conversation.id = :conversationId")
+    Optional<LocalDateTime> findCreatedAt(@Param("conversationId") UUID conversationId, @Param("id") UUID id);
+
     // Mark messages as read
     @Modifying
     @Query("UPDATE Message m SET m.readAt = :readAt " +
@@ -34,13 +59,6 @@ public interface MessageRepository extends JpaRepository<Message, UUID> {
             @Param("readAt") LocalDateTime readAt
     );
 
-    // Count unread messages for a user
-    @Query("SELECT COUNT(m) FROM Message m " +
-            "WHERE (m.conversation.participant1.id = :userId OR m.conversation.participant2.id = :userId) " +
-            "AND m.sender.id != :userId " +
-            "AND m.readAt IS NULL")
-    long countUnreadMessages(@Param("userId") UUID userId);
-
     // Count unread messages in a conversation for a user
     @Query("SELECT COUNT(m) FROM Message m " +
             "WHERE m.conversation.id = :conversationId " +
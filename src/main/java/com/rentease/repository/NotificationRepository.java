@@ -3,6 +3,7 @@ package com.rentease.repository;
 import com.rentease.entity.Notification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,13 +20,20 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId ORDER BY n.createdAt DESC")
     Page<Notification> findByRecipientId(@Param("userId") UUID userId, Pageable pageable);
 
+    // Count-free variant of findByRecipientId, used when the client passes withTotal=false
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId ORDER BY n.createdAt DESC")
+    Slice<Notification> sliceByRecipientId(@Param("userId") UUID userId, Pageable pageable);
+
     // Get unread notifications for a user
     @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId AND n.read = false ORDER BY n.createdAt DESC")
     List<Notification> findUnreadByRecipientId(@Param("userId") UUID userId);
 
-    // Count unread notifications
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = :userId AND n.read = false")
-    long countUnreadByRecipientId(@Param("userId") UUID userId);
+    // Mark one notification as read; returns 0 when it is already read or not the user's
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true, n.readAt = CURRENT_TIMESTAMP WHERE n.id = :id AND n.recipient.id = :userId AND n.read = false")
+    int markAsReadForUser(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    boolean existsByIdAndRecipientId(UUID id, UUID recipientId);
 
     // Mark all notifications as read for a user
     @Modifying
@@ -0,0 +1,61 @@
+package com.rentease.repository;
+
+import com.rentease.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    // Lock the next deliverable events; SKIP LOCKED lets several instances poll without double delivery
+    @Query(value = "SELECT * FROM outbox_events " +
+            "WHERE processed_at IS NULL AND available_at <= :now AND attempts < :maxAttempts " +
+            "ORDER BY created_at " +
+            "LIMIT :batchSize " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("now") LocalDateTime now,
+                                    @Param("maxAttempts") int maxAttempts,
+                                    @Param("batchSize") int batchSize);
+
+    // Insert unless an event with the same dedup key is still pending; returns the number of rows inserted
+    @Modifying
+    @Query(value = "INSERT INTO outbox_events (id, event_type, aggregate_id, payload, dedup_key, available_at) " +
+            "VALUES (gen_random_uuid(), :eventType, :aggregateId, :payload, :dedupKey, :availableAt) " +
+            "ON CONFLICT (dedup_key) WHERE processed_at IS NULL DO NOTHING",
+            nativeQuery = true)
+    int insertUnlessPending(@Param("eventType") String eventType,
+                            @Param("aggregateId") UUID aggregateId,
+                            @Param("payload") String payload,
+                            @Param("dedupKey") String dedupKey,
+                            @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<UUID> ids, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    // An event that used up its last attempt gives up its dedup key, so it no longer absorbs new events
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, e.availableAt = :retryAt, " +
+            "e.dedupKey = CASE WHEN e.attempts + 1 >= :maxAttempts THEN NULL ELSE e.dedupKey END " +
+            "WHERE e.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("error") String error, @Param("retryAt") LocalDateTime retryAt,
+                   @Param("maxAttempts") int maxAttempts);
+
+    // Push an event back without counting an attempt (e.g. recipient rate limit)
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.availableAt = :availableAt WHERE e.id = :id")
+    int defer(@Param("id") UUID id, @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,6 +3,7 @@ package com.rentease.repository;
 import com.rentease.entity.Review;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -37,6 +38,27 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
             "ORDER BY r.createdAt DESC")
     Page<Review> findByReviewerId(@Param("userId") UUID userId, Pageable pageable);
 
+    // Count-free (Slice) variants of the paged finders above, used when the client passes withTotal=false
+    @Query("SELECT r FROM Review r " +
+            "JOIN FETCH r.reviewer " +
+            "WHERE r.listing.id = :listingId " +
+            "ORDER BY r.createdAt DESC")
+    Slice<Review> sliceByListingId(@Param("listingId") UUID listingId, Pageable pageable);
+
+    @Query("SELECT r FROM Review r " +
+            "JOIN FETCH r.reviewer " +
+            "JOIN FETCH r.listing " +
+            "WHERE r.reviewee.id = :userId " +
+            "ORDER BY r.createdAt DESC")
+    Slice<Review> sliceByRevieweeId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("SELECT r FROM Review r " +
+            "JOIN FETCH r.reviewee " +
+            "JOIN FETCH r.listing " +
+            "WHERE r.reviewer.id = :userId " +
+            "ORDER BY r.createdAt DESC")
+    Slice<Review> sliceByReviewerId(@Param("userId") UUID userId, Pageable pageable);
+
     // Check if user already reviewed a booking
     boolean existsByBookingIdAndReviewerId(UUID bookingId, UUID reviewerId);
 
@@ -51,18 +73,4 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
             "JOIN FETCH r.reviewee " +
             "WHERE r.id = :id")
     Optional<Review> findByIdWithDetails(@Param("id") UUID id);
-
-    // Get average rating for a listing
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.listing.id = :listingId")
-    Double getAverageRatingForListing(@Param("listingId") UUID listingId);
-
-    // Count reviews for a listing
-    long countByListingId(UUID listingId);
-
-    // Get rating distribution for a listing
-    @Query("SELECT r.rating, COUNT(r) FROM Review r " +
-            "WHERE r.listing.id = :listingId " +
-            "GROUP BY r.rating " +
-            "ORDER BY r.rating DESC")
-    java.util.List<Object[]> getRatingDistribution(@Param("listingId") UUID listingId);
 }
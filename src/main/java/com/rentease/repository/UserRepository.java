@@ -2,8 +2,13 @@ package com.rentease.repository;
 
 import com.rentease.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,4 +22,34 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmailVerificationToken(String token);
 
     Optional<User> findByPasswordResetToken(String token);
+
+    // (id, tokenVersion, tokensRevokedAt) of users whose tokens were revoked after the given time
+    @Query("SELECT u.id, u.tokenVersion, u.tokensRevokedAt FROM User u WHERE u.tokensRevokedAt > :since")
+    List<Object[]> findTokenRevocationsSince(@Param("since") LocalDateTime since);
+
+    // Add one review to the user's rating aggregates in a single atomic statement
+    @Modifying
+    @Query(value = "UPDATE users SET " +
+            "total_reviews = total_reviews + 1, " +
+            "rating_sum = rating_sum + :rating, " +
+            "average_rating = CAST((rating_sum + :rating) AS DECIMAL) / (total_reviews + 1), " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :userId",
+            nativeQuery = true)
+    int addRating(@Param("userId") UUID userId, @Param("rating") int rating);
+
+    // Recompute rating aggregates from the reviews table, touching only rows that have drifted
+    @Modifying
+    @Query(value = "UPDATE users u SET " +
+            "total_reviews = s.review_count, " +
+            "rating_sum = s.rating_sum, " +
+            "average_rating = CASE WHEN s.review_count = 0 THEN NULL " +
+            "ELSE CAST(s.rating_sum AS DECIMAL) / s.review_count END " +
+            "FROM (SELECT u2.id, COUNT(r.id) AS review_count, COALESCE(SUM(r.rating), 0) AS rating_sum " +
+            "      FROM users u2 LEFT JOIN reviews r ON r.reviewee_id = u2.id " +
+            "      GROUP BY u2.id) s " +
+            "WHERE s.id = u.id " +
+            "AND (u.total_reviews IS DISTINCT FROM s.review_count OR u.rating_sum <> s.rating_sum)",
+            nativeQuery = true)
+    int recomputeRatings();
 }
@@ -0,0 +1,34 @@
+package com.rentease.repository;
+
+import com.rentease.entity.UserUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface UserUnreadCounterRepository extends JpaRepository<UserUnreadCounter, UUID> {
+
+    // Atomically adjust the unread message count, creating the row on first use; never goes below zero
+    @Modifying
+    @Query(value = "INSERT INTO user_unread_counters (user_id, unread_messages, unread_notifications, updated_at) " +
+            "VALUES (:userId, GREATEST(:delta, 0), 0, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "unread_messages = GREATEST(user_unread_counters.unread_messages + :delta, 0), " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    void addUnreadMessages(@Param("userId") UUID userId, @Param("delta") int delta);
+
+    // Same as addUnreadMessages, for notifications
+    @Modifying
+    @Query(value = "INSERT INTO user_unread_counters (user_id, unread_messages, unread_notifications, updated_at) " +
+            "VALUES (:userId, 0, GREATEST(:delta, 0), CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "unread_notifications = GREATEST(user_unread_counters.unread_notifications + :delta, 0), " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    void addUnreadNotifications(@Param("userId") UUID userId, @Param("delta") int delta);
+}
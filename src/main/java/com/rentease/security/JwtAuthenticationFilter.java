@@ -10,14 +10,12 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -25,7 +23,7 @@ import java.util.UUID;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationList tokenRevocationList;
 
     @Override
     protected void doFilterInternal(
@@ -36,12 +34,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String tokenType = jwtTokenProvider.getTokenType(jwt);
+            if (StringUtils.hasText(jwt)) {
+                JwtClaims claims = jwtTokenProvider.parseToken(jwt).orElse(null);
 
-                if ("access".equals(tokenType)) {
-                    UUID userId = jwtTokenProvider.getUserIdFromToken(jwt);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(userId.toString());
+                if (claims != null && claims.isAccessToken() && !tokenRevocationList.isRevoked(claims)) {
+                    // The principal comes straight from the token, no user lookup
+                    UserDetails userDetails = UserPrincipal.fromClaims(claims);
 
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,19 @@
+package com.rentease.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The parts of a verified token the application uses. Produced by {@link JwtTokenProvider#parseToken}.
+ */
+public record JwtClaims(UUID userId, String email, String type, boolean emailVerified, boolean idVerified,
+                        int tokenVersion, Instant expiresAt) {
+
+    public boolean isAccessToken() {
+        return "access".equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+}
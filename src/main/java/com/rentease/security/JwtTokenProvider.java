@@ -1,15 +1,25 @@
 package com.rentease.security;
 
 import com.rentease.config.AppConfig;
+import com.rentease.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
@@ -19,74 +29,144 @@ public class JwtTokenProvider {
 
     private final AppConfig appConfig;
 
-    private SecretKey getSigningKey() {
+    // Both are immutable and thread-safe, so they are built once instead of per call
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Verified claims keyed by a hash of the token. Guarded by itself; access-ordered for LRU eviction.
+    private Map<String, CachedClaims> claimsCache;
+
+    private record CachedClaims(JwtClaims claims, Instant cachedUntil) {}
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = appConfig.getJwt().getSecret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+
+        int maxEntries = appConfig.getJwt().getClaimsCacheSize();
+        claimsCache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > maxEntries;
+            }
+        };
     }
 
-    public String generateAccessToken(UUID userId, String email) {
+    /**
+     * Access tokens carry everything UserPrincipal needs, so requests are authenticated
+     * without loading the user. "ver" is checked against TokenRevocationList for revocation.
+     */
+    public String generateAccessToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + appConfig.getJwt().getAccessTokenExpirationMs());
 
         return Jwts.builder()
-                .subject(userId.toString())
-                .claim("email", email)
+                .subject(user.getId().toString())
+                .claim("email", user.getEmail())
                 .claim("type", "access")
+                .claim("ev", user.isEmailVerified())
+                .claim("iv", user.isIdVerified())
+                .claim("ver", user.getTokenVersion())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String generateRefreshToken(UUID userId) {
+    public String generateRefreshToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + appConfig.getJwt().getRefreshTokenExpirationMs());
 
         return Jwts.builder()
-                .subject(userId.toString())
+                .subject(user.getId().toString())
                 .claim("type", "refresh")
+                .claim("ver", user.getTokenVersion())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies the token once and returns its claims, or empty if it is invalid or expired.
+     * Verified tokens are cached until their expiry (or the configured TTL, if sooner), so a
+     * client reusing the same access token is not re-parsed on every request.
+     */
+    public Optional<JwtClaims> parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
 
-        return UUID.fromString(claims.getSubject());
-    }
+        Instant now = Instant.now();
+        String key = hash(token);
+        synchronized (claimsCache) {
+            CachedClaims cached = claimsCache.get(key);
+            if (cached != null) {
+                if (now.isBefore(cached.cachedUntil())) {
+                    return Optional.of(cached.claims());
+                }
+                claimsCache.remove(key);
+            }
+        }
 
-    public String getTokenType(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        JwtClaims claims = verify(token);
+        if (claims == null) {
+            return Optional.empty();
+        }
 
-        return claims.get("type", String.class);
+        Instant ttlLimit = now.plusSeconds(appConfig.getJwt().getClaimsCacheTtlSeconds());
+        Instant cachedUntil = claims.expiresAt().isBefore(ttlLimit) ? claims.expiresAt() : ttlLimit;
+        synchronized (claimsCache) {
+            claimsCache.put(key, new CachedClaims(claims, cachedUntil));
+        }
+        return Optional.of(claims);
     }
 
-    public boolean validateToken(String token) {
+    private JwtClaims verify(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                log.error("JWT token is missing required claims");
+                return null;
+            }
+            return new JwtClaims(
+                    UUID.fromString(claims.getSubject()),
+                    claims.get("email", String.class),
+                    claims.get("type", String.class),
+                    Boolean.TRUE.equals(claims.get("ev", Boolean.class)),
+                    Boolean.TRUE.equals(claims.get("iv", Boolean.class)),
+                    versionOf(claims),
+                    claims.getExpiration().toInstant()
+            );
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
             log.error("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             log.error("Unsupported JWT token");
+        } catch (SecurityException ex) {
+            log.error("Invalid JWT signature");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+    // Tokens issued before versioning have no "ver" claim and count as version 0
+    private static int versionOf(Claims claims) {
+        Integer version = claims.get("ver", Integer.class);
+        return version != null ? version : 0;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,107 @@
+package com.rentease.security;
+
+import com.rentease.config.AppConfig;
+import com.rentease.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Token revocations from the last access-token lifetime, so access tokens are checked for
+ * revocation in memory instead of loading the user on every request. A user with no entry has
+ * not revoked anything recently, and any token they hold is current.
+ *
+ * Revocations made on this instance apply as soon as their transaction commits. Every instance
+ * also polls users.tokens_revoked_at, so revocations made elsewhere apply within
+ * app.jwt.revocation-poll-interval-ms. An entry is dropped one access-token lifetime after the
+ * revocation, when every token issued before it has expired anyway.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationList {
+
+    private final UserRepository userRepository;
+    private final AppConfig appConfig;
+
+    // Tokens with a version below this are revoked until expiresAt
+    private record Revocation(int currentVersion, LocalDateTime expiresAt) {}
+
+    // Guarded by itself
+    private final Map<UUID, Revocation> revocations = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        synchronized (revocations) {
+            Revocation revocation = revocations.get(claims.userId());
+            return revocation != null && claims.tokenVersion() < revocation.currentVersion();
+        }
+    }
+
+    public void revokeAfterCommit(UUID userId, int currentVersion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revoke(userId, currentVersion, LocalDateTime.now());
+                }
+            });
+        } else {
+            revoke(userId, currentVersion, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Reloads every revocation still within an access-token lifetime. Reading the whole window
+     * each time (rather than since the last poll) also catches revocations whose transaction
+     * committed after a previous poll had started.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-poll-interval-ms:30000}",
+            initialDelayString = "${app.jwt.revocation-poll-interval-ms:30000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows;
+        try {
+            rows = userRepository.findTokenRevocationsSince(now.minus(tokenLifetime()));
+        } catch (Exception e) {
+            // Keep what we have; local revocations still apply
+            log.warn("Could not load token revocations", e);
+            return;
+        }
+
+        for (Object[] row : rows) {
+            revoke((UUID) row[0], (Integer) row[1], (LocalDateTime) row[2]);
+        }
+        synchronized (revocations) {
+            revocations.values().removeIf(revocation -> !now.isBefore(revocation.expiresAt()));
+        }
+    }
+
+    private void revoke(UUID userId, int currentVersion, LocalDateTime revokedAt) {
+        Revocation revocation = new Revocation(currentVersion, revokedAt.plus(tokenLifetime()));
+        synchronized (revocations) {
+            // Versions only go up; never let an older row replace a newer revocation
+            revocations.merge(userId, revocation, (existing, loaded) ->
+                    loaded.currentVersion() >= existing.currentVersion() ? loaded : existing);
+        }
+    }
+
+    private Duration tokenLifetime() {
+        return Duration.ofMillis(appConfig.getJwt().getAccessTokenExpirationMs());
+    }
+}
@@ -33,6 +33,18 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    // Built from a verified access token; there is no password on this path
+    public static UserPrincipal fromClaims(JwtClaims claims) {
+        return new UserPrincipal(
+                claims.userId(),
+                claims.email(),
+                null,
+                claims.emailVerified(),
+                claims.idVerified(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+    }
+
     @Override
     public String getUsername() {
         return id.toString();
@@ -11,7 +11,6 @@ import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -23,7 +22,7 @@ import java.util.UUID;
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationList tokenRevocationList;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -40,11 +39,12 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                     String jwt = authHeader.substring(7);
 
                     try {
-                        if (jwtTokenProvider.validateToken(jwt)) {
-                            UUID userId = jwtTokenProvider.getUserIdFromToken(jwt);
+                        JwtClaims claims = jwtTokenProvider.parseToken(jwt).orElse(null);
+                        if (claims != null && claims.isAccessToken() && !tokenRevocationList.isRevoked(claims)) {
+                            UUID userId = claims.userId();
 
-                            // Load user details using the user ID
-                            UserDetails userDetails = userDetailsService.loadUserByUsername(userId.toString());
+                            // The principal comes straight from the token, no user lookup
+                            UserDetails userDetails = UserPrincipal.fromClaims(claims);
 
                             UsernamePasswordAuthenticationToken authToken =
                                 new UsernamePasswordAuthenticationToken(
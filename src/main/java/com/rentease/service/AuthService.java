@@ -15,6 +15,7 @@ import com.rentease.exception.BadRequestException;
 import com.rentease.exception.UnauthorizedException;
 import com.rentease.mapper.UserMapper;
 import com.rentease.repository.UserRepository;
+import com.rentease.security.JwtClaims;
 import com.rentease.security.JwtTokenProvider;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -27,7 +28,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -145,25 +145,26 @@ public class AuthService {
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         String refreshToken = request.getRefreshToken();
 
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            throw new UnauthorizedException("Invalid refresh token");
-        }
+        JwtClaims claims = jwtTokenProvider.parseToken(refreshToken)
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
 
-        String tokenType = jwtTokenProvider.getTokenType(refreshToken);
-        if (!"refresh".equals(tokenType)) {
+        if (!claims.isRefreshToken()) {
             throw new UnauthorizedException("Invalid token type");
         }
 
-        UUID userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
-        User user = userRepository.findById(userId)
+        User user = userRepository.findById(claims.userId())
                 .orElseThrow(() -> new UnauthorizedException("User not found"));
 
+        if (user.getTokenVersion() != claims.tokenVersion()) {
+            throw new UnauthorizedException("Refresh token has been revoked");
+        }
+
         return generateAuthResponse(user);
     }
 
     private AuthResponse generateAuthResponse(User user) {
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getId());
+        String accessToken = jwtTokenProvider.generateAccessToken(user);
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user);
         UserResponse userResponse = userMapper.toResponse(user);
 
         return AuthResponse.builder()
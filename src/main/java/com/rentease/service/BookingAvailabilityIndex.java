@@ -0,0 +1,161 @@
+package com.rentease.service;
+
+import com.rentease.config.AppConfig;
+import com.rentease.dto.response.BookedDateRangeResponse;
+import com.rentease.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-process index of the date ranges blocked by APPROVED/ACTIVE bookings, per listing.
+ *
+ * Each listing maps to a sorted long[] of inclusive epoch-day pairs
+ * ({@code [start0, end0, start1, end1, ...]}), loaded lazily from the database. BookingService
+ * invalidates a listing after committing a booking that moves in or out of a blocking status,
+ * and the next read reloads it. With Redis enabled the invalidation is also published to other
+ * instances; without it they catch up when their entry expires. The database remains the source
+ * of truth: overlapping APPROVED/ACTIVE bookings are rejected there.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingAvailabilityIndex {
+
+    public static final String INVALIDATION_CHANNEL = "rentease:availability:invalidate";
+
+    private static final int MAX_CACHED_LISTINGS = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final AppConfig appConfig;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    // Guarded by itself. Access-ordered so the least recently used listings are evicted first.
+    private final Map<UUID, CachedRanges> ranges = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedRanges> eldest) {
+            return size() > MAX_CACHED_LISTINGS;
+        }
+    };
+
+    // Bumped on every eviction so a load that raced with a booking change is not cached
+    private long generation;
+
+    private record CachedRanges(long[] blocked, Instant expiresAt) {}
+
+    public boolean hasOverlap(UUID listingId, LocalDate startDate, LocalDate endDate) {
+        long[] blocked = rangesFor(listingId);
+        int i = lastRangeStartingOnOrBefore(blocked, endDate.toEpochDay());
+        return i >= 0 && blocked[2 * i + 1] >= startDate.toEpochDay();
+    }
+
+    public List<BookedDateRangeResponse> getBookedRanges(UUID listingId, LocalDate fromDate) {
+        long[] blocked = rangesFor(listingId);
+        long from = fromDate.toEpochDay();
+
+        List<BookedDateRangeResponse> result = new ArrayList<>();
+        for (int i = 0; i < blocked.length; i += 2) {
+            if (blocked[i + 1] >= from) {
+                result.add(BookedDateRangeResponse.builder()
+                        .startDate(LocalDate.ofEpochDay(blocked[i]))
+                        .endDate(LocalDate.ofEpochDay(blocked[i + 1]))
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    public void invalidateAfterCommit(UUID listingId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(listingId);
+                }
+            });
+        } else {
+            invalidate(listingId);
+        }
+    }
+
+    // Called for invalidations published by any instance, including this one
+    public void evict(UUID listingId) {
+        synchronized (ranges) {
+            generation++;
+            ranges.remove(listingId);
+        }
+    }
+
+    private void invalidate(UUID listingId) {
+        evict(listingId);
+        redisTemplate.ifAvailable(template -> {
+            try {
+                template.convertAndSend(INVALIDATION_CHANNEL, listingId.toString());
+            } catch (Exception e) {
+                // Other instances fall back to the TTL
+                log.warn("Could not publish availability invalidation for listing {}", listingId, e);
+            }
+        });
+    }
+
+    private long[] rangesFor(UUID listingId) {
+        Instant now = Instant.now();
+        long observedGeneration;
+        synchronized (ranges) {
+            CachedRanges cached = ranges.get(listingId);
+            if (cached != null && now.isBefore(cached.expiresAt())) {
+                return cached.blocked();
+            }
+            observedGeneration = generation;
+        }
+
+        // Load outside the lock; only cache it if no booking changed meanwhile
+        long[] loaded = load(listingId);
+        Instant expiresAt = now.plusSeconds(appConfig.getCache().getAvailabilityTtlSeconds());
+        synchronized (ranges) {
+            if (generation == observedGeneration) {
+                ranges.put(listingId, new CachedRanges(loaded, expiresAt));
+            }
+        }
+        return loaded;
+    }
+
+    private long[] load(UUID listingId) {
+        List<Object[]> rows = bookingRepository.findBlockedRangesForListing(listingId);
+        long[] blocked = new long[rows.size() * 2];
+        for (int i = 0; i < rows.size(); i++) {
+            blocked[2 * i] = ((LocalDate) rows.get(i)[0]).toEpochDay();
+            blocked[2 * i + 1] = ((LocalDate) rows.get(i)[1]).toEpochDay();
+        }
+        return blocked;
+    }
+
+    // Index of the last pair whose start is <= day, or -1
+    private static int lastRangeStartingOnOrBefore(long[] blocked, long day) {
+        int lo = 0;
+        int hi = blocked.length / 2 - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blocked[2 * mid] <= day) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+}
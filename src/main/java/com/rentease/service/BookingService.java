@@ -9,32 +9,41 @@ import com.rentease.entity.Listing;
 import com.rentease.entity.User;
 import com.rentease.entity.enums.BookingStatus;
 import com.rentease.entity.enums.NotificationType;
+import com.rentease.entity.enums.OutboxEventType;
 import com.rentease.exception.BadRequestException;
+import com.rentease.exception.ConflictException;
 import com.rentease.exception.ForbiddenException;
 import com.rentease.exception.ResourceNotFoundException;
 import com.rentease.repository.BookingRepository;
 import com.rentease.repository.ListingRepository;
 import com.rentease.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01"; // PostgreSQL SQLSTATE exclusion_violation
+
     private final BookingRepository bookingRepository;
     private final ListingRepository listingRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
+    private final BookingAvailabilityIndex availabilityIndex;
 
     @Transactional
     public BookingResponse createBooking(UUID renterId, UUID listingId, CreateBookingRequest request) {
@@ -58,10 +67,7 @@ public class BookingService {
         }
 
         // Check for overlapping bookings
-        List<BookingStatus> activeStatuses = Arrays.asList(
-                BookingStatus.APPROVED, BookingStatus.ACTIVE);
-        if (bookingRepository.hasOverlappingBookings(listingId, request.getStartDate(), request.getEndDate(),
-                activeStatuses)) {
+        if (availabilityIndex.hasOverlap(listingId, request.getStartDate(), request.getEndDate())) {
             throw new BadRequestException("The selected dates overlap with an existing booking");
         }
 
@@ -96,7 +102,7 @@ public class BookingService {
                 saved);
 
         // Send email notification
-        emailService.sendBookingRequestEmail(saved.getId());
+        outboxService.enqueue(OutboxEventType.BOOKING_REQUESTED_EMAIL, saved.getId());
 
         return BookingResponse.fromEntity(saved);
     }
@@ -115,30 +121,40 @@ public class BookingService {
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<BookingResponse> getMyBookings(UUID renterId, String status, int page, int size) {
+    public PagedResponse<BookingResponse> getMyBookings(UUID renterId, String status, int page, int size,
+                                                        boolean withTotal) {
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Booking> bookings;
+        Slice<Booking> bookings;
 
         if (status != null && !status.isEmpty()) {
             BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
-            bookings = bookingRepository.findByRenterIdAndStatus(renterId, bookingStatus, pageRequest);
+            bookings = withTotal
+                    ? bookingRepository.findByRenterIdAndStatus(renterId, bookingStatus, pageRequest)
+                    : bookingRepository.sliceByRenterIdAndStatus(renterId, bookingStatus, pageRequest);
         } else {
-            bookings = bookingRepository.findByRenterId(renterId, pageRequest);
+            bookings = withTotal
+                    ? bookingRepository.findByRenterId(renterId, pageRequest)
+                    : bookingRepository.sliceByRenterId(renterId, pageRequest);
         }
 
         return mapToPagedResponse(bookings);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<BookingResponse> getBookingRequests(UUID ownerId, String status, int page, int size) {
+    public PagedResponse<BookingResponse> getBookingRequests(UUID ownerId, String status, int page, int size,
+                                                             boolean withTotal) {
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Booking> bookings;
+        Slice<Booking> bookings;
 
         if (status != null && !status.isEmpty()) {
             BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
-            bookings = bookingRepository.findByOwnerIdAndStatus(ownerId, bookingStatus, pageRequest);
+            bookings = withTotal
+                    ? bookingRepository.findByOwnerIdAndStatus(ownerId, bookingStatus, pageRequest)
+                    : bookingRepository.sliceByOwnerIdAndStatus(ownerId, bookingStatus, pageRequest);
         } else {
-            bookings = bookingRepository.findByOwnerId(ownerId, pageRequest);
+            bookings = withTotal
+                    ? bookingRepository.findByOwnerId(ownerId, pageRequest)
+                    : bookingRepository.sliceByOwnerId(ownerId, pageRequest);
         }
 
         return mapToPagedResponse(bookings);
@@ -156,7 +172,17 @@ public class BookingService {
         booking.setOwnerResponse(request.getResponse());
         booking.setApprovedAt(LocalDateTime.now());
 
-        Booking saved = bookingRepository.save(booking);
+        // Flush now so the exclusion constraint fires here rather than at commit
+        Booking saved;
+        try {
+            saved = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new ConflictException("These dates overlap with another approved booking");
+            }
+            throw e;
+        }
+        availabilityIndex.invalidateAfterCommit(booking.getListing().getId());
 
         // Notify the renter that their booking was approved
         notificationService.createBookingNotification(
@@ -166,7 +192,7 @@ public class BookingService {
                 saved);
 
         // Send email notification
-        emailService.sendBookingApprovedEmail(saved.getId());
+        outboxService.enqueue(OutboxEventType.BOOKING_APPROVED_EMAIL, saved.getId());
 
         return BookingResponse.fromEntity(saved);
     }
@@ -192,7 +218,7 @@ public class BookingService {
                 saved);
 
         // Send email notification
-        emailService.sendBookingDeclinedEmail(saved.getId());
+        outboxService.enqueue(OutboxEventType.BOOKING_DECLINED_EMAIL, saved.getId());
 
         return BookingResponse.fromEntity(saved);
     }
@@ -213,12 +239,16 @@ public class BookingService {
             throw new BadRequestException("This booking cannot be cancelled");
         }
 
+        boolean wasBlocking = booking.getStatus() == BookingStatus.APPROVED;
         booking.setStatus(BookingStatus.CANCELLED);
         booking.setCancellationReason(request.getCancellationReason());
         booking.setCancelledBy(userId);
         booking.setCancelledAt(LocalDateTime.now());
 
         Booking saved = bookingRepository.save(booking);
+        if (wasBlocking) {
+            availabilityIndex.invalidateAfterCommit(booking.getListing().getId());
+        }
 
         // Notify the other party about the cancellation
         User canceller = userId.equals(booking.getRenter().getId()) ? booking.getRenter()
@@ -232,7 +262,8 @@ public class BookingService {
                 saved);
 
         // Send email notification
-        emailService.sendBookingCancelledEmail(saved.getId(), userId);
+        outboxService.enqueue(OutboxEventType.BOOKING_CANCELLED_EMAIL, saved.getId(),
+                Map.of("cancelledBy", userId.toString()));
 
         return BookingResponse.fromEntity(saved);
     }
@@ -272,6 +303,7 @@ public class BookingService {
         booking.setCompletedAt(LocalDateTime.now());
 
         Booking saved = bookingRepository.save(booking);
+        availabilityIndex.invalidateAfterCommit(booking.getListing().getId());
 
         // Notify the renter that rental has been completed
         notificationService.createBookingNotification(
@@ -281,7 +313,7 @@ public class BookingService {
                 saved);
 
         // Send email notification prompting for a review
-        emailService.sendBookingCompletedEmail(saved.getId());
+        outboxService.enqueue(OutboxEventType.BOOKING_COMPLETED_EMAIL, saved.getId());
 
         return BookingResponse.fromEntity(saved);
     }
@@ -297,19 +329,23 @@ public class BookingService {
         return booking;
     }
 
-    private PagedResponse<BookingResponse> mapToPagedResponse(Page<Booking> page) {
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                // The constraint name is not always reported; bookings_no_overlap is the only exclusion constraint
+                return violation.getConstraintName() != null
+                        ? OVERLAP_CONSTRAINT.equals(violation.getConstraintName())
+                        : EXCLUSION_VIOLATION.equals(violation.getSQLState());
+            }
+        }
+        return false;
+    }
+
+    private PagedResponse<BookingResponse> mapToPagedResponse(Slice<Booking> page) {
         List<BookingResponse> content = page.getContent().stream()
                 .map(BookingResponse::fromEntity)
                 .toList();
 
-        return PagedResponse.<BookingResponse>builder()
-                .data(content)
-                .pagination(PagedResponse.Pagination.builder()
-                        .page(page.getNumber())
-                        .size(page.getSize())
-                        .totalElements(page.getTotalElements())
-                        .totalPages(page.getTotalPages())
-                        .build())
-                .build();
+        return PagedResponse.of(content, page);
     }
 }
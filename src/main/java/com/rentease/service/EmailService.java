@@ -3,18 +3,21 @@ package com.rentease.service;
 import com.rentease.entity.Booking;
 import com.rentease.entity.User;
 import com.rentease.repository.BookingRepository;
+import com.rentease.util.HtmlTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -33,13 +36,93 @@ public class EmailService {
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy");
 
-    @Async
+    // Templates are parsed once at class load; {{x}} is HTML-escaped, {{{x}}} is a pre-rendered fragment
+
+    private static final HtmlTemplate OPTIONAL_BLOCK = HtmlTemplate.compile(
+        "<p><strong>{{label}}:</strong> {{text}}</p>");
+
+    private static final HtmlTemplate BOOKING_REQUEST_CONTENT = HtmlTemplate.compile(
+        "<p><strong>{{renterFirstName}} {{renterLastName}}</strong> wants to rent your <strong>{{listingTitle}}</strong>.</p>" +
+        "<p><strong>Dates:</strong> {{startDate}} - {{endDate}}</p>" +
+        "<p><strong>Total:</strong> ${{total}}</p>" +
+        "{{{message}}}" +
+        "<p>Please respond to this request within 24 hours.</p>");
+
+    private static final HtmlTemplate BOOKING_APPROVED_CONTENT = HtmlTemplate.compile(
+        "<p>Great news! <strong>{{ownerFirstName}}</strong> has approved your booking for <strong>{{listingTitle}}</strong>.</p>" +
+        "<p><strong>Dates:</strong> {{startDate}} - {{endDate}}</p>" +
+        "<p><strong>Pickup Location:</strong> {{pickupLocation}}</p>" +
+        "{{{ownerResponse}}}" +
+        "<p>Contact the owner to arrange pickup details.</p>");
+
+    private static final HtmlTemplate BOOKING_DECLINED_CONTENT = HtmlTemplate.compile(
+        "<p>Unfortunately, <strong>{{ownerFirstName}}</strong> was unable to accept your booking for <strong>{{listingTitle}}</strong>.</p>" +
+        "<p><strong>Requested Dates:</strong> {{startDate}} - {{endDate}}</p>" +
+        "{{{reason}}}" +
+        "<p>Don't worry! There are plenty of other items available. Browse our listings to find something else.</p>");
+
+    private static final HtmlTemplate BOOKING_CANCELLED_CONTENT = HtmlTemplate.compile(
+        "<p>{{canceller}} has cancelled the booking for <strong>{{listingTitle}}</strong>.</p>" +
+        "<p><strong>Dates:</strong> {{startDate}} - {{endDate}}</p>" +
+        "{{{reason}}}");
+
+    private static final HtmlTemplate BOOKING_COMPLETED_CONTENT = HtmlTemplate.compile(
+        "<p>Your rental of <strong>{{listingTitle}}</strong> has been marked as complete.</p>" +
+        "<p>We hope you had a great experience! Please take a moment to leave a review and help other renters.</p>");
+
+    private static final HtmlTemplate NEW_MESSAGE_CONTENT = HtmlTemplate.compile(
+        "<p><strong>{{senderFirstName}} {{senderLastName}}</strong> sent you {{messageCount}} about <strong>{{listingTitle}}</strong>.</p>" +
+        "<p>Log in to RentEase to view and reply.</p>");
+
+    private static final HtmlTemplate LAYOUT = HtmlTemplate.compile("""
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+            </head>
+            <body style="margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f5f5f5;">
+                <div style="max-width: 600px; margin: 0 auto; padding: 40px 20px;">
+                    <div style="background-color: white; border-radius: 16px; padding: 40px; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.05);">
+                        <!-- Logo -->
+                        <div style="text-align: center; margin-bottom: 32px;">
+                            <h1 style="color: #7c3aed; font-size: 28px; margin: 0;">RentEase</h1>
+                        </div>
+
+                        <!-- Heading -->
+                        <h2 style="color: #1f2937; font-size: 24px; margin-bottom: 24px; text-align: center;">{{heading}}</h2>
+
+                        <!-- Greeting -->
+                        <p style="color: #4b5563; font-size: 16px; line-height: 1.6;">Hi {{recipientName}},</p>
+
+                        <!-- Content -->
+                        <div style="color: #4b5563; font-size: 16px; line-height: 1.6; margin-bottom: 32px;">
+                            {{{content}}}
+                        </div>
+
+                        <!-- CTA Button -->
+                        <div style="text-align: center; margin-bottom: 32px;">
+                            <a href="{{buttonUrl}}" style="display: inline-block; background-color: #7c3aed; color: white; text-decoration: none; padding: 14px 32px; border-radius: 50px; font-weight: 600; font-size: 16px;">{{buttonText}}</a>
+                        </div>
+
+                        <!-- Footer -->
+                        <div style="border-top: 1px solid #e5e7eb; padding-top: 24px; text-align: center;">
+                            <p style="color: #9ca3af; font-size: 14px; margin: 0;">
+                                This email was sent by RentEase. If you didn't expect this email, you can safely ignore it.
+                            </p>
+                        </div>
+                    </div>
+                </div>
+            </body>
+            </html>
+            """);
+
     @Transactional(readOnly = true)
-    public void sendBookingRequestEmail(UUID bookingId) {
+    public MimeMessage composeBookingRequestEmail(UUID bookingId) {
         Booking booking = bookingRepository.findById(bookingId).orElse(null);
         if (booking == null) {
             log.warn("Booking not found for email: {}", bookingId);
-            return;
+            return null;
         }
 
         User owner = booking.getListing().getOwner();
@@ -49,35 +132,28 @@ public class EmailService {
         String body = buildEmailTemplate(
             owner.getFirstName(),
             "New Booking Request",
-            String.format(
-                "<p><strong>%s %s</strong> wants to rent your <strong>%s</strong>.</p>" +
-                "<p><strong>Dates:</strong> %s - %s</p>" +
-                "<p><strong>Total:</strong> $%.2f</p>" +
-                "%s" +
-                "<p>Please respond to this request within 24 hours.</p>",
-                renter.getFirstName(),
-                renter.getLastName(),
-                booking.getListing().getTitle(),
-                booking.getStartDate().format(DATE_FORMAT),
-                booking.getEndDate().format(DATE_FORMAT),
-                booking.getTotalPrice() / 100.0,
-                booking.getRenterMessage() != null ?
-                    "<p><strong>Message:</strong> " + booking.getRenterMessage() + "</p>" : ""
-            ),
+            BOOKING_REQUEST_CONTENT.render(Map.of(
+                "renterFirstName", renter.getFirstName(),
+                "renterLastName", renter.getLastName(),
+                "listingTitle", booking.getListing().getTitle(),
+                "startDate", booking.getStartDate().format(DATE_FORMAT),
+                "endDate", booking.getEndDate().format(DATE_FORMAT),
+                "total", formatCents(booking.getTotalPrice()),
+                "message", optionalBlock("Message", booking.getRenterMessage())
+            )),
             frontendUrl + "/booking-requests",
             "View Request"
         );
 
-        sendEmail(owner.getEmail(), subject, body);
+        return buildMessage(owner.getEmail(), subject, body);
     }
 
-    @Async
     @Transactional(readOnly = true)
-    public void sendBookingApprovedEmail(UUID bookingId) {
+    public MimeMessage composeBookingApprovedEmail(UUID bookingId) {
         Booking booking = bookingRepository.findById(bookingId).orElse(null);
         if (booking == null) {
             log.warn("Booking not found for email: {}", bookingId);
-            return;
+            return null;
         }
 
         User renter = booking.getRenter();
@@ -87,34 +163,27 @@ public class EmailService {
         String body = buildEmailTemplate(
             renter.getFirstName(),
             "Booking Approved",
-            String.format(
-                "<p>Great news! <strong>%s</strong> has approved your booking for <strong>%s</strong>.</p>" +
-                "<p><strong>Dates:</strong> %s - %s</p>" +
-                "<p><strong>Pickup Location:</strong> %s</p>" +
-                "%s" +
-                "<p>Contact the owner to arrange pickup details.</p>",
-                owner.getFirstName(),
-                booking.getListing().getTitle(),
-                booking.getStartDate().format(DATE_FORMAT),
-                booking.getEndDate().format(DATE_FORMAT),
-                booking.getListing().getPickupLocation(),
-                booking.getOwnerResponse() != null ?
-                    "<p><strong>Owner's Message:</strong> " + booking.getOwnerResponse() + "</p>" : ""
-            ),
+            BOOKING_APPROVED_CONTENT.render(Map.of(
+                "ownerFirstName", owner.getFirstName(),
+                "listingTitle", booking.getListing().getTitle(),
+                "startDate", booking.getStartDate().format(DATE_FORMAT),
+                "endDate", booking.getEndDate().format(DATE_FORMAT),
+                "pickupLocation", booking.getListing().getPickupLocation(),
+                "ownerResponse", optionalBlock("Owner's Message", booking.getOwnerResponse())
+            )),
             frontendUrl + "/bookings/" + booking.getId(),
             "View Booking"
         );
 
-        sendEmail(renter.getEmail(), subject, body);
+        return buildMessage(renter.getEmail(), subject, body);
     }
 
-    @Async
     @Transactional(readOnly = true)
-    public void sendBookingDeclinedEmail(UUID bookingId) {
+    public MimeMessage composeBookingDeclinedEmail(UUID bookingId) {
         Booking booking = bookingRepository.findById(bookingId).orElse(null);
         if (booking == null) {
             log.warn("Booking not found for email: {}", bookingId);
-            return;
+            return null;
         }
 
         User renter = booking.getRenter();
@@ -124,32 +193,26 @@ public class EmailService {
         String body = buildEmailTemplate(
             renter.getFirstName(),
             "Booking Declined",
-            String.format(
-                "<p>Unfortunately, <strong>%s</strong> was unable to accept your booking for <strong>%s</strong>.</p>" +
-                "<p><strong>Requested Dates:</strong> %s - %s</p>" +
-                "%s" +
-                "<p>Don't worry! There are plenty of other items available. Browse our listings to find something else.</p>",
-                owner.getFirstName(),
-                booking.getListing().getTitle(),
-                booking.getStartDate().format(DATE_FORMAT),
-                booking.getEndDate().format(DATE_FORMAT),
-                booking.getOwnerResponse() != null ?
-                    "<p><strong>Reason:</strong> " + booking.getOwnerResponse() + "</p>" : ""
-            ),
+            BOOKING_DECLINED_CONTENT.render(Map.of(
+                "ownerFirstName", owner.getFirstName(),
+                "listingTitle", booking.getListing().getTitle(),
+                "startDate", booking.getStartDate().format(DATE_FORMAT),
+                "endDate", booking.getEndDate().format(DATE_FORMAT),
+                "reason", optionalBlock("Reason", booking.getOwnerResponse())
+            )),
             frontendUrl + "/listings",
             "Browse Listings"
         );
 
-        sendEmail(renter.getEmail(), subject, body);
+        return buildMessage(renter.getEmail(), subject, body);
     }
 
-    @Async
     @Transactional(readOnly = true)
-    public void sendBookingCancelledEmail(UUID bookingId, UUID cancelledById) {
+    public MimeMessage composeBookingCancelledEmail(UUID bookingId, UUID cancelledById) {
         Booking booking = bookingRepository.findById(bookingId).orElse(null);
         if (booking == null) {
             log.warn("Booking not found for email: {}", bookingId);
-            return;
+            return null;
         }
 
         User recipient;
@@ -167,31 +230,26 @@ public class EmailService {
         String body = buildEmailTemplate(
             recipient.getFirstName(),
             "Booking Cancelled",
-            String.format(
-                "<p>%s has cancelled the booking for <strong>%s</strong>.</p>" +
-                "<p><strong>Dates:</strong> %s - %s</p>" +
-                "%s",
-                canceller,
-                booking.getListing().getTitle(),
-                booking.getStartDate().format(DATE_FORMAT),
-                booking.getEndDate().format(DATE_FORMAT),
-                booking.getCancellationReason() != null ?
-                    "<p><strong>Reason:</strong> " + booking.getCancellationReason() + "</p>" : ""
-            ),
+            BOOKING_CANCELLED_CONTENT.render(Map.of(
+                "canceller", canceller,
+                "listingTitle", booking.getListing().getTitle(),
+                "startDate", booking.getStartDate().format(DATE_FORMAT),
+                "endDate", booking.getEndDate().format(DATE_FORMAT),
+                "reason", optionalBlock("Reason", booking.getCancellationReason())
+            )),
             frontendUrl + "/my-bookings",
             "View Bookings"
         );
 
-        sendEmail(recipient.getEmail(), subject, body);
+        return buildMessage(recipient.getEmail(), subject, body);
     }
 
-    @Async
     @Transactional(readOnly = true)
-    public void sendBookingCompletedEmail(UUID bookingId) {
+    public MimeMessage composeBookingCompletedEmail(UUID bookingId) {
         Booking booking = bookingRepository.findById(bookingId).orElse(null);
         if (booking == null) {
             log.warn("Booking not found for email: {}", bookingId);
-            return;
+            return null;
         }
 
         User renter = booking.getRenter();
@@ -200,85 +258,75 @@ public class EmailService {
         String body = buildEmailTemplate(
             renter.getFirstName(),
             "Rental Complete",
-            String.format(
-                "<p>Your rental of <strong>%s</strong> has been marked as complete.</p>" +
-                "<p>We hope you had a great experience! Please take a moment to leave a review and help other renters.</p>",
-                booking.getListing().getTitle()
-            ),
+            BOOKING_COMPLETED_CONTENT.render(Map.of(
+                "listingTitle", booking.getListing().getTitle()
+            )),
             frontendUrl + "/bookings/" + booking.getId(),
             "Leave a Review"
         );
 
-        sendEmail(renter.getEmail(), subject, body);
+        return buildMessage(renter.getEmail(), subject, body);
     }
 
-    @Async
-    public void sendNewMessageEmail(String recipientEmail, String recipientFirstName,
-                                     String senderFirstName, String senderLastName, String listingTitle) {
-        String subject = "New message from " + senderFirstName;
+    public MimeMessage composeNewMessageEmail(String recipientEmail, String recipientFirstName,
+                                     String senderFirstName, String senderLastName, String listingTitle,
+                                     long messageCount) {
+        String subject = messageCount == 1
+            ? "New message from " + senderFirstName
+            : messageCount + " new messages from " + senderFirstName;
         String body = buildEmailTemplate(
             recipientFirstName,
-            "New Message",
-            String.format(
-                "<p><strong>%s %s</strong> sent you a message about <strong>%s</strong>.</p>" +
-                "<p>Log in to RentEase to view and reply to the message.</p>",
-                senderFirstName,
-                senderLastName,
-                listingTitle
-            ),
+            messageCount == 1 ? "New Message" : "New Messages",
+            NEW_MESSAGE_CONTENT.render(Map.of(
+                "senderFirstName", senderFirstName,
+                "senderLastName", senderLastName,
+                "listingTitle", listingTitle,
+                "messageCount", messageCount == 1 ? "a message" : messageCount + " messages"
+            )),
             frontendUrl + "/messages",
             "View Messages"
         );
 
-        sendEmail(recipientEmail, subject, body);
+        return buildMessage(recipientEmail, subject, body);
     }
 
+    // Content is inserted as-is: it was rendered (and escaped) by one of the content templates
     private String buildEmailTemplate(String recipientName, String heading, String content, String buttonUrl, String buttonText) {
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-            </head>
-            <body style="margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f5f5f5;">
-                <div style="max-width: 600px; margin: 0 auto; padding: 40px 20px;">
-                    <div style="background-color: white; border-radius: 16px; padding: 40px; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.05);">
-                        <!-- Logo -->
-                        <div style="text-align: center; margin-bottom: 32px;">
-                            <h1 style="color: #7c3aed; font-size: 28px; margin: 0;">RentEase</h1>
-                        </div>
-
-                        <!-- Heading -->
-                        <h2 style="color: #1f2937; font-size: 24px; margin-bottom: 24px; text-align: center;">%s</h2>
-
-                        <!-- Greeting -->
-                        <p style="color: #4b5563; font-size: 16px; line-height: 1.6;">Hi %s,</p>
+        return LAYOUT.render(Map.of(
+            "heading", heading,
+            "recipientName", recipientName,
+            "content", content,
+            "buttonUrl", buttonUrl,
+            "buttonText", buttonText
+        ));
+    }
 
-                        <!-- Content -->
-                        <div style="color: #4b5563; font-size: 16px; line-height: 1.6; margin-bottom: 32px;">
-                            %s
-                        </div>
+    // "<p><strong>Label:</strong> text</p>", or nothing when the field was left empty
+    private static String optionalBlock(String label, String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        return OPTIONAL_BLOCK.render(Map.of("label", label, "text", text));
+    }
 
-                        <!-- CTA Button -->
-                        <div style="text-align: center; margin-bottom: 32px;">
-                            <a href="%s" style="display: inline-block; background-color: #7c3aed; color: white; text-decoration: none; padding: 14px 32px; border-radius: 50px; font-weight: 600; font-size: 16px;">%s</a>
-                        </div>
+    private static String formatCents(int cents) {
+        int remainder = cents % 100;
+        return cents / 100 + (remainder < 10 ? ".0" : ".") + remainder;
+    }
 
-                        <!-- Footer -->
-                        <div style="border-top: 1px solid #e5e7eb; padding-top: 24px; text-align: center;">
-                            <p style="color: #9ca3af; font-size: 14px; margin: 0;">
-                                This email was sent by RentEase. If you didn't expect this email, you can safely ignore it.
-                            </p>
-                        </div>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """, heading, recipientName, content, buttonUrl, buttonText);
+    /**
+     * Sends the messages over a single SMTP connection. On partial failure the thrown
+     * MailSendException lists the failed messages; everything else was delivered.
+     */
+    public void sendAll(List<MimeMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        mailSender.send(messages.toArray(new MimeMessage[0]));
+        log.info("Sent {} emails in one batch", messages.size());
     }
 
-    private void sendEmail(String to, String subject, String htmlBody) {
+    private MimeMessage buildMessage(String to, String subject, String htmlBody) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -288,10 +336,9 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(htmlBody, true);
 
-            mailSender.send(message);
-            log.info("Email sent successfully to: {}", to);
+            return message;
         } catch (MessagingException e) {
-            log.error("Failed to send email to: {}", to, e);
+            throw new MailPreparationException("Failed to build email to: " + to, e);
         }
     }
 }
@@ -12,9 +12,9 @@ import com.rentease.repository.FavoriteRepository;
 import com.rentease.repository.ListingRepository;
 import com.rentease.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -68,21 +68,17 @@ public class FavoriteService {
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<ListingSummaryResponse> getFavorites(UUID userId, int page, int size) {
+    public PagedResponse<ListingSummaryResponse> getFavorites(UUID userId, int page, int size, boolean withTotal) {
         Pageable pageable = PageRequest.of(page, Math.min(size, 50));
-        Page<Favorite> favoritesPage = favoriteRepository.findByUserIdWithListing(userId, pageable);
+        Slice<Favorite> favoritesPage = withTotal
+                ? favoriteRepository.findByUserIdWithListing(userId, pageable)
+                : favoriteRepository.sliceByUserIdWithListing(userId, pageable);
 
         List<ListingSummaryResponse> listings = favoritesPage.getContent().stream()
                 .map(fav -> listingMapper.toSummaryResponse(fav.getListing()))
                 .collect(Collectors.toList());
 
-        return PagedResponse.of(
-                listings,
-                favoritesPage.getNumber(),
-                favoritesPage.getSize(),
-                favoritesPage.getTotalElements(),
-                favoritesPage.getTotalPages()
-        );
+        return PagedResponse.of(listings, favoritesPage);
     }
 
     @Transactional(readOnly = true)
@@ -10,13 +10,14 @@ import com.rentease.entity.Listing;
 import com.rentease.entity.ListingImage;
 import com.rentease.entity.User;
 import com.rentease.entity.enums.Category;
+import com.rentease.exception.BadRequestException;
 import com.rentease.exception.ForbiddenException;
 import com.rentease.exception.ResourceNotFoundException;
 import com.rentease.mapper.ListingMapper;
-import com.rentease.repository.BookingRepository;
 import com.rentease.repository.ListingImageRepository;
 import com.rentease.repository.ListingRepository;
 import com.rentease.repository.UserRepository;
+import com.rentease.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -25,13 +26,19 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,12 +46,22 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ListingService {
 
+    // Above this many rows, unfiltered browse reports a periodically refreshed count instead of
+    // running COUNT(*) per request; the total is flagged as estimated
+    private static final long ESTIMATED_TOTAL_THRESHOLD = 10_000;
+    private static final Duration ACTIVE_COUNT_TTL = Duration.ofSeconds(60);
+
     private final ListingRepository listingRepository;
     private final ListingImageRepository listingImageRepository;
     private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
     private final ListingMapper listingMapper;
 
+    private record CachedCount(long count, Instant expiresAt) {}
+
+    private volatile CachedCount activeListingCount;
+    private final AtomicBoolean refreshingActiveCount = new AtomicBoolean();
+
     @Transactional
     @CacheEvict(value = "recentListings", allEntries = true)
     public ListingResponse createListing(UUID userId, CreateListingRequest request) {
@@ -53,6 +70,9 @@ public class ListingService {
 
         Listing listing = Listing.builder()
                 .owner(owner)
+                .ownerFirstName(owner.getFirstName())
+                .ownerIdVerified(owner.isIdVerified())
+                .ownerAverageRating(owner.getAverageRating())
                 .title(request.getTitle())
                 .description(request.getDescription())
                 .category(request.getCategory())
@@ -76,6 +96,7 @@ public class ListingService {
                         .build();
                 listing.addImage(image);
             }
+            listing.refreshPrimaryImageUrl();
             listing = listingRepository.save(listing);
         }
 
@@ -99,58 +120,156 @@ public class ListingService {
             String query,
             Integer minPrice,
             Integer maxPrice,
+            LocalDate startDate,
+            LocalDate endDate,
             String sort,
             int page,
-            int size
+            int size,
+            boolean withTotal
     ) {
         Pageable pageable = createPageable(page, size, sort);
-        Page<Listing> listingPage;
+        Slice<Listing> listingPage;
 
-        Category categoryEnum = null;
-        if (category != null && !category.isEmpty()) {
-            try {
-                categoryEnum = Category.valueOf(category.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                // Invalid category, ignore filter
-            }
-        }
+        Category categoryEnum = parseCategory(category);
 
         boolean hasQuery = query != null && !query.trim().isEmpty();
         boolean useFullTextSearch = hasQuery && query.trim().length() >= 3;
 
-        if (categoryEnum != null && hasQuery) {
+        if (validateDateRange(startDate, endDate)) {
+            // Availability search: a single anti-join instead of a booked-dates call per listing
+            String trimmedQuery = hasQuery ? query.trim() : null;
+            listingPage = withTotal
+                    ? listingRepository.findAvailableBetween(categoryEnum, trimmedQuery, startDate, endDate, pageable)
+                    : listingRepository.sliceAvailableBetween(categoryEnum, trimmedQuery, startDate, endDate, pageable);
+        } else if (categoryEnum != null && hasQuery) {
             if (useFullTextSearch) {
                 // Use PostgreSQL full-text search for queries 3+ characters
-                listingPage = listingRepository.searchByCategoryAndQuery(categoryEnum.name(), query.trim(), pageable);
+                listingPage = withTotal
+                        ? listingRepository.searchByCategoryAndQuery(categoryEnum.name(), query.trim(), pageable)
+                        : listingRepository.sliceByCategoryAndQuery(categoryEnum.name(), query.trim(), pageable);
             } else {
                 // Fallback to LIKE search for short queries
-                listingPage = listingRepository.searchByCategoryAndQueryFallback(categoryEnum, query.trim(), pageable);
+                listingPage = withTotal
+                        ? listingRepository.searchByCategoryAndQueryFallback(categoryEnum, query.trim(), pageable)
+                        : listingRepository.sliceByCategoryAndQueryFallback(categoryEnum, query.trim(), pageable);
             }
         } else if (categoryEnum != null) {
-            listingPage = listingRepository.findByCategory(categoryEnum, pageable);
+            listingPage = withTotal
+                    ? listingRepository.findByCategory(categoryEnum, pageable)
+                    : listingRepository.sliceByCategory(categoryEnum, pageable);
         } else if (hasQuery) {
             if (useFullTextSearch) {
                 // Use PostgreSQL full-text search for queries 3+ characters
-                listingPage = listingRepository.searchByQuery(query.trim(), pageable);
+                listingPage = withTotal
+                        ? listingRepository.searchByQuery(query.trim(), pageable)
+                        : listingRepository.sliceByQuery(query.trim(), pageable);
             } else {
                 // Fallback to LIKE search for short queries
-                listingPage = listingRepository.searchByQueryFallback(query.trim(), pageable);
+                listingPage = withTotal
+                        ? listingRepository.searchByQueryFallback(query.trim(), pageable)
+                        : listingRepository.sliceByQueryFallback(query.trim(), pageable);
             }
         } else {
-            listingPage = listingRepository.findAllActive(pageable);
+            // Unfiltered browse: on a large catalogue an exact COUNT(*) is the most expensive part
+            // of the request, so report the cached count of active listings instead
+            Long estimate = withTotal ? activeListingCount() : null;
+            if (estimate != null && estimate >= ESTIMATED_TOTAL_THRESHOLD) {
+                Slice<Listing> slice = listingRepository.sliceAllActive(pageable);
+                return PagedResponse.ofEstimate(toSummaries(slice.getContent()), slice, estimate);
+            }
+            listingPage = withTotal
+                    ? listingRepository.findAllActive(pageable)
+                    : listingRepository.sliceAllActive(pageable);
         }
 
-        List<ListingSummaryResponse> listings = listingPage.getContent().stream()
-                .map(listingMapper::toSummaryResponse)
-                .collect(Collectors.toList());
+        return PagedResponse.of(toSummaries(listingPage.getContent()), listingPage);
+    }
 
-        return PagedResponse.of(
-                listings,
-                page,
-                size,
-                listingPage.getTotalElements(),
-                listingPage.getTotalPages()
-        );
+    /**
+     * Keyset (seek) variant of {@link #getListings}. Instead of a page number the client passes back
+     * the opaque {@code nextCursor} of the previous page (or an empty cursor for the first page), so
+     * deep pages cost the same as the first one and no COUNT query is run.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<ListingSummaryResponse> getListingsByCursor(
+            String category,
+            String query,
+            LocalDate startDate,
+            LocalDate endDate,
+            String sort,
+            String cursor,
+            int size
+    ) {
+        int limit = Math.max(1, Math.min(size, 50));
+        // Fetch one extra row to find out whether there is a next page
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        Category categoryEnum = parseCategory(category);
+        boolean hasCursor = cursor != null && !cursor.isBlank();
+
+        boolean hasDates = validateDateRange(startDate, endDate);
+
+        String trimmedQuery = query != null && !query.trim().isEmpty() ? query.trim() : null;
+        // Relevance ordering is only available from the full-text index, which has no availability filter
+        String sortKey = trimmedQuery != null && trimmedQuery.length() >= 3 && !hasDates
+                ? "relevance"
+                : normalizeSort(sort);
+
+        List<Listing> rows;
+        String[] position = hasCursor ? decodeCursor(cursor, sortKey) : null;
+
+        switch (sortKey) {
+            case "relevance" -> {
+                Float rank = position != null ? parseCursorValue(position[1], Float::valueOf) : Float.MAX_VALUE;
+                UUID id = position != null ? parseCursorValue(position[2], UUID::fromString) : null;
+                rows = categoryEnum != null
+                        ? listingRepository.searchByCategoryAndQueryAfter(categoryEnum.name(), trimmedQuery, rank, id, pageable)
+                        : listingRepository.searchByQueryAfter(trimmedQuery, rank, id, pageable);
+            }
+            case "price_asc", "price_desc" -> {
+                boolean ascending = "price_asc".equals(sortKey);
+                if (position == null) {
+                    rows = ascending
+                            ? listingRepository.findCheapestFirst(categoryEnum, trimmedQuery, startDate, endDate, pageable)
+                            : listingRepository.findPriciestFirst(categoryEnum, trimmedQuery, startDate, endDate, pageable);
+                } else {
+                    Integer price = parseCursorValue(position[1], Integer::valueOf);
+                    UUID id = parseCursorValue(position[2], UUID::fromString);
+                    rows = ascending
+                            ? listingRepository.findCheapestAfter(categoryEnum, trimmedQuery, startDate, endDate, price, id, pageable)
+                            : listingRepository.findPriciestAfter(categoryEnum, trimmedQuery, startDate, endDate, price, id, pageable);
+                }
+            }
+            default -> {
+                boolean oldest = "oldest".equals(sortKey);
+                if (position == null) {
+                    rows = oldest
+                            ? listingRepository.findOldestFirst(categoryEnum, trimmedQuery, startDate, endDate, pageable)
+                            : listingRepository.findNewestFirst(categoryEnum, trimmedQuery, startDate, endDate, pageable);
+                } else {
+                    LocalDateTime createdAt = parseCursorValue(position[1], LocalDateTime::parse);
+                    UUID id = parseCursorValue(position[2], UUID::fromString);
+                    rows = oldest
+                            ? listingRepository.findOldestAfter(categoryEnum, trimmedQuery, startDate, endDate, createdAt, id, pageable)
+                            : listingRepository.findNewestAfter(categoryEnum, trimmedQuery, startDate, endDate, createdAt, id, pageable);
+                }
+            }
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<Listing> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Listing last = pageRows.get(pageRows.size() - 1);
+            String value = switch (sortKey) {
+                case "relevance" -> String.valueOf(listingRepository.getSearchRank(last.getId(), trimmedQuery));
+                case "price_asc", "price_desc" -> String.valueOf(last.getPricePerDay());
+                default -> last.getCreatedAt().toString();
+            };
+            nextCursor = CursorCodec.encode(sortKey, value, last.getId().toString());
+        }
+
+        return PagedResponse.ofCursor(toSummaries(pageRows), limit, nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -228,6 +347,7 @@ public class ListingService {
                         .build();
                 listing.addImage(image);
             }
+            listing.refreshPrimaryImageUrl();
         }
 
         listing = listingRepository.save(listing);
@@ -276,6 +396,7 @@ public class ListingService {
                 .build();
 
         listing.addImage(image);
+        listing.refreshPrimaryImageUrl();
         listing = listingRepository.save(listing);
 
         log.info("Image added to listing: {}", listingId);
@@ -298,6 +419,7 @@ public class ListingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Image", "id", imageId));
 
         listing.removeImage(image);
+        listing.refreshPrimaryImageUrl();
         listingImageRepository.delete(image);
 
         log.info("Image {} removed from listing {}", imageId, listingId);
@@ -320,15 +442,87 @@ public class ListingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Listing", "id", listingId));
 
         // Get active bookings from today onwards
-        return bookingRepository.findActiveBookingsForListing(listingId, LocalDate.now())
-                .stream()
-                .map(booking -> BookedDateRangeResponse.builder()
-                        .startDate(booking.getStartDate())
-                        .endDate(booking.getEndDate())
-                        .build())
+        return availabilityIndex.getBookedRanges(listingId, LocalDate.now());
+    }
+
+    private List<ListingSummaryResponse> toSummaries(List<Listing> listings) {
+        return listings.stream()
+                .map(listingMapper::toSummaryResponse)
                 .collect(Collectors.toList());
     }
 
+    private Category parseCategory(String category) {
+        if (category != null && !category.isEmpty()) {
+            try {
+                return Category.valueOf(category.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // Invalid category, ignore filter
+            }
+        }
+        return null;
+    }
+
+    // Count of active, available listings, refreshed at most once per ACTIVE_COUNT_TTL.
+    // While one request refreshes it, the others keep using the previous value.
+    private long activeListingCount() {
+        CachedCount cached = activeListingCount;
+        if (cached != null && Instant.now().isBefore(cached.expiresAt())) {
+            return cached.count();
+        }
+        boolean refreshing = refreshingActiveCount.compareAndSet(false, true);
+        if (!refreshing && cached != null) {
+            return cached.count();
+        }
+        try {
+            long count = listingRepository.countAllActive();
+            activeListingCount = new CachedCount(count, Instant.now().plus(ACTIVE_COUNT_TTL));
+            return count;
+        } finally {
+            if (refreshing) {
+                refreshingActiveCount.set(false);
+            }
+        }
+    }
+
+    private String normalizeSort(String sort) {
+        String normalized = sort != null ? sort.toLowerCase() : "newest";
+        return switch (normalized) {
+            case "price_asc", "price_desc", "oldest" -> normalized;
+            default -> "newest";
+        };
+    }
+
+    private String[] decodeCursor(String cursor, String sortKey) {
+        String[] parts = CursorCodec.decode(cursor, 3);
+        // A cursor is only valid for the ordering it was issued for
+        if (!sortKey.equals(parts[0])) {
+            throw new BadRequestException("Cursor does not match the requested sort order");
+        }
+        return parts;
+    }
+
+    private <T> T parseCursorValue(String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    // Returns true when a complete, valid date range was supplied
+    private boolean validateDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null && endDate == null) {
+            return false;
+        }
+        if (startDate == null || endDate == null) {
+            throw new BadRequestException("Both startDate and endDate are required to filter by availability");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("End date must be after start date");
+        }
+        return true;
+    }
+
     private Pageable createPageable(int page, int size, String sort) {
         Sort sortOrder = Sort.by(Sort.Direction.DESC, "createdAt");
 
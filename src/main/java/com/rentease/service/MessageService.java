@@ -1,5 +1,6 @@
 package com.rentease.service;
 
+import com.rentease.config.AppConfig;
 import com.rentease.dto.request.SendMessageRequest;
 import com.rentease.dto.response.ConversationResponse;
 import com.rentease.dto.response.MessageResponse;
@@ -8,6 +9,8 @@ import com.rentease.entity.Conversation;
 import com.rentease.entity.Listing;
 import com.rentease.entity.Message;
 import com.rentease.entity.User;
+import com.rentease.entity.UserUnreadCounter;
+import com.rentease.entity.enums.OutboxEventType;
 import com.rentease.exception.BadRequestException;
 import com.rentease.exception.ForbiddenException;
 import com.rentease.exception.ResourceNotFoundException;
@@ -15,14 +18,19 @@ import com.rentease.repository.ConversationRepository;
 import com.rentease.repository.ListingRepository;
 import com.rentease.repository.MessageRepository;
 import com.rentease.repository.UserRepository;
+import com.rentease.repository.UserUnreadCounterRepository;
+import com.rentease.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -33,30 +41,23 @@ public class MessageService {
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
     private final ListingRepository listingRepository;
-    private final EmailService emailService;
+    private final UserUnreadCounterRepository unreadCounterRepository;
+    private final OutboxService outboxService;
+    private final SimpUserRegistry simpUserRegistry;
+    private final AppConfig appConfig;
 
     @Transactional(readOnly = true)
-    public PagedResponse<ConversationResponse> getConversations(UUID userId, int page, int size) {
-        Page<Conversation> conversations = conversationRepository.findByParticipant(
-                userId, PageRequest.of(page, size)
-        );
+    public PagedResponse<ConversationResponse> getConversations(UUID userId, int page, int size, boolean withTotal) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Slice<Conversation> conversations = withTotal
+                ? conversationRepository.findByParticipant(userId, pageRequest)
+                : conversationRepository.sliceByParticipant(userId, pageRequest);
 
         List<ConversationResponse> content = conversations.getContent().stream()
-                .map(conv -> {
-                    long unread = messageRepository.countUnreadInConversation(conv.getId(), userId);
-                    return ConversationResponse.fromEntity(conv, userId, unread);
-                })
+                .map(conv -> ConversationResponse.fromEntity(conv, userId))
                 .toList();
 
-        return PagedResponse.<ConversationResponse>builder()
-                .data(content)
-                .pagination(PagedResponse.Pagination.builder()
-                        .page(conversations.getNumber())
-                        .size(conversations.getSize())
-                        .totalElements(conversations.getTotalElements())
-                        .totalPages(conversations.getTotalPages())
-                        .build())
-                .build();
+        return PagedResponse.of(content, conversations);
     }
 
     @Transactional(readOnly = true)
@@ -68,8 +69,7 @@ public class MessageService {
             throw new ForbiddenException("You don't have access to this conversation");
         }
 
-        long unread = messageRepository.countUnreadInConversation(conversationId, userId);
-        return ConversationResponse.fromEntity(conversation, userId, unread);
+        return ConversationResponse.fromEntity(conversation, userId);
     }
 
     @Transactional(readOnly = true)
@@ -100,6 +100,60 @@ public class MessageService {
                 .build();
     }
 
+    /**
+     * Keyset variant of {@link #getMessages}. {@code before} is either the opaque {@code nextCursor}
+     * of the previous page, the id of a message in the conversation, or empty for the newest page.
+     * No COUNT query is run, and senders come from the conversation rather than a join per row.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<MessageResponse> getMessagesBefore(UUID userId, UUID conversationId, String before, int size) {
+        Conversation conversation = conversationRepository.findByIdWithDetails(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found"));
+
+        if (!conversation.isParticipant(userId)) {
+            throw new ForbiddenException("You don't have access to this conversation");
+        }
+
+        int limit = Math.max(1, Math.min(size, 100));
+        LocalDateTime createdAt = null;
+        UUID id = null;
+        if (before != null && !before.isBlank()) {
+            id = parseMessageId(before);
+            if (id != null) {
+                createdAt = messageRepository.findCreatedAt(conversationId, id)
+                        .orElseThrow(() -> new BadRequestException("Invalid cursor"));
+            } else {
+                String[] position = CursorCodec.decode(before, 2);
+                try {
+                    createdAt = LocalDateTime.parse(position[0]);
+                    id = UUID.fromString(position[1]);
+                } catch (RuntimeException e) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+            }
+        }
+
+        // Fetch one extra row to find out whether there is a next page
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<Message> rows = createdAt != null
+                ? messageRepository.findBefore(conversationId, createdAt, id, pageRequest)
+                : messageRepository.findLatest(conversationId, pageRequest);
+        boolean hasNext = rows.size() > limit;
+        List<Message> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        List<MessageResponse> content = pageRows.stream()
+                .map(message -> MessageResponse.fromEntity(message, participant(conversation, message.getSender().getId())))
+                .toList();
+
+        String nextCursor = null;
+        if (hasNext) {
+            Message last = pageRows.get(pageRows.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt().toString(), last.getId().toString());
+        }
+
+        return PagedResponse.ofCursor(content, limit, nextCursor);
+    }
+
     @Transactional
     public MessageResponse sendMessage(UUID senderId, UUID conversationId, SendMessageRequest request) {
         Conversation conversation = conversationRepository.findByIdWithDetails(conversationId)
@@ -118,19 +172,15 @@ public class MessageService {
                 .content(request.getContent())
                 .build();
 
-        Message saved = messageRepository.save(message);
+        Message saved = messageRepository.saveAndFlush(message);
 
-        // Send email notification to the recipient
         User recipient = conversation.getParticipant1().getId().equals(senderId)
                 ? conversation.getParticipant2()
                 : conversation.getParticipant1();
-        emailService.sendNewMessageEmail(
-                recipient.getEmail(),
-                recipient.getFirstName(),
-                sender.getFirstName(),
-                sender.getLastName(),
-                conversation.getListing().getTitle()
-        );
+        recordMessage(conversation, saved, recipient.getId());
+
+        // Send email notification to the recipient
+        enqueueNewMessageEmail(conversation, recipient, sender, conversation.getListing().getTitle());
 
         return MessageResponse.fromEntity(saved);
     }
@@ -162,9 +212,10 @@ public class MessageService {
                     .sender(sender)
                     .content(initialMessage)
                     .build();
-            messageRepository.save(message);
+            Message saved = messageRepository.saveAndFlush(message);
+            recordMessage(conversation, saved, recipientId);
 
-            return ConversationResponse.fromEntity(conversation, senderId, 0L);
+            return ConversationResponse.fromEntity(conversation, senderId);
         }
 
         // Create new conversation
@@ -187,18 +238,13 @@ public class MessageService {
                 .sender(sender)
                 .content(initialMessage)
                 .build();
-        messageRepository.save(message);
+        Message savedMessage = messageRepository.saveAndFlush(message);
+        recordMessage(savedConversation, savedMessage, recipientId);
 
         // Send email notification to the recipient
-        emailService.sendNewMessageEmail(
-                recipient.getEmail(),
-                recipient.getFirstName(),
-                sender.getFirstName(),
-                sender.getLastName(),
-                listing.getTitle()
-        );
+        enqueueNewMessageEmail(savedConversation, recipient, sender, listing.getTitle());
 
-        return ConversationResponse.fromEntity(savedConversation, senderId, 0L);
+        return ConversationResponse.fromEntity(savedConversation, senderId);
     }
 
     @Transactional
@@ -210,11 +256,74 @@ public class MessageService {
             throw new ForbiddenException("You don't have access to this conversation");
         }
 
-        messageRepository.markAsRead(conversationId, userId, LocalDateTime.now());
+        int marked = messageRepository.markAsRead(conversationId, userId, LocalDateTime.now());
+        if (marked > 0) {
+            conversationRepository.clearUnread(conversationId, userId, marked);
+            unreadCounterRepository.addUnreadMessages(userId, -marked);
+        }
+    }
+
+    // A bare message id is accepted as a cursor; anything else must be an encoded position
+    private UUID parseMessageId(String before) {
+        try {
+            return UUID.fromString(before);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private User participant(Conversation conversation, UUID userId) {
+        return conversation.getParticipant1().getId().equals(userId)
+                ? conversation.getParticipant1()
+                : conversation.getParticipant2();
+    }
+
+    // Keep the conversation's last-message fields and the unread totals in step with a new message.
+    // The message must be flushed so its created_at is known; the update would flush it anyway.
+    private void recordMessage(Conversation conversation, Message message, UUID recipientId) {
+        conversation.applyLastMessage(message);
+        conversationRepository.recordMessage(
+                conversation.getId(), recipientId,
+                conversation.getLastMessageAt(), conversation.getLastMessagePreview());
+        unreadCounterRepository.addUnreadMessages(recipientId, 1);
     }
 
     @Transactional(readOnly = true)
     public long getUnreadCount(UUID userId) {
-        return messageRepository.countUnreadMessages(userId);
+        return unreadCounterRepository.findById(userId)
+                .map(UserUnreadCounter::getUnreadMessages)
+                .orElse(0);
+    }
+
+    /**
+     * New-message emails are digested per conversation and recipient: the first unread message
+     * opens a window, and anything sent before it closes is covered by the same email. Nothing is
+     * queued while the recipient has a live STOMP session, since they see the message in the app.
+     */
+    private void enqueueNewMessageEmail(Conversation conversation, User recipient, User sender, String listingTitle) {
+        if (isConnected(recipient.getId())) {
+            return;
+        }
+
+        LocalDateTime sendAt = LocalDateTime.now().plusMinutes(appConfig.getMail().getMessageDigestMinutes());
+        outboxService.enqueueCoalesced(OutboxEventType.NEW_MESSAGE_EMAIL, conversation.getId(), Map.of(
+                "recipientId", recipient.getId().toString(),
+                "recipientEmail", recipient.getEmail(),
+                "recipientFirstName", recipient.getFirstName(),
+                "senderFirstName", sender.getFirstName(),
+                "senderLastName", sender.getLastName(),
+                "listingTitle", listingTitle
+        ), "new-message:" + conversation.getId() + ":" + recipient.getId(), sendAt);
+    }
+
+    /**
+     * Whether the user has a live STOMP session. Principal names are user ids (see
+     * UserPrincipal.getUsername). With app.websocket.broker=redis the registry only holds this
+     * instance's sessions, so true is reliable but false only means "not connected here": the
+     * email digest is then queued anyway and is still skipped if everything has been read by
+     * the time it is due.
+     */
+    public boolean isConnected(UUID userId) {
+        return simpUserRegistry.getUser(userId.toString()) != null;
     }
 }
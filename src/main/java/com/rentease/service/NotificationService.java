@@ -6,13 +6,15 @@ import com.rentease.entity.Booking;
 import com.rentease.entity.Listing;
 import com.rentease.entity.Notification;
 import com.rentease.entity.User;
+import com.rentease.entity.UserUnreadCounter;
 import com.rentease.entity.enums.NotificationType;
 import com.rentease.exception.ResourceNotFoundException;
 import com.rentease.repository.NotificationRepository;
+import com.rentease.repository.UserUnreadCounterRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ import java.util.UUID;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final UserUnreadCounterRepository unreadCounterRepository;
 
     @Transactional
     public void createBookingNotification(NotificationType type, User recipient, User actor, Booking booking) {
@@ -75,6 +78,7 @@ public class NotificationService {
                 .build();
 
         notificationRepository.save(notification);
+        unreadCounterRepository.addUnreadNotifications(recipient.getId(), 1);
         log.info("Created {} notification for user {}", type, recipient.getId());
     }
 
@@ -91,27 +95,22 @@ public class NotificationService {
                 .build();
 
         notificationRepository.save(notification);
+        unreadCounterRepository.addUnreadNotifications(recipient.getId(), 1);
         log.info("Created REVIEW_RECEIVED notification for user {}", recipient.getId());
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<NotificationResponse> getNotifications(UUID userId, int page, int size) {
+    public PagedResponse<NotificationResponse> getNotifications(UUID userId, int page, int size, boolean withTotal) {
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Notification> notifications = notificationRepository.findByRecipientId(userId, pageRequest);
+        Slice<Notification> notifications = withTotal
+                ? notificationRepository.findByRecipientId(userId, pageRequest)
+                : notificationRepository.sliceByRecipientId(userId, pageRequest);
 
         List<NotificationResponse> content = notifications.getContent().stream()
                 .map(NotificationResponse::fromEntity)
                 .toList();
 
-        return PagedResponse.<NotificationResponse>builder()
-                .data(content)
-                .pagination(PagedResponse.Pagination.builder()
-                        .page(notifications.getNumber())
-                        .size(notifications.getSize())
-                        .totalElements(notifications.getTotalElements())
-                        .totalPages(notifications.getTotalPages())
-                        .build())
-                .build();
+        return PagedResponse.of(content, notifications);
     }
 
     @Transactional(readOnly = true)
@@ -123,24 +122,31 @@ public class NotificationService {
 
     @Transactional(readOnly = true)
     public long getUnreadCount(UUID userId) {
-        return notificationRepository.countUnreadByRecipientId(userId);
+        return unreadCounterRepository.findById(userId)
+                .map(UserUnreadCounter::getUnreadNotifications)
+                .orElse(0);
     }
 
     @Transactional
     public void markAsRead(UUID userId, UUID notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Notification", "id", notificationId));
+        // Conditional update so concurrent calls for the same notification decrement only once
+        int marked = notificationRepository.markAsReadForUser(notificationId, userId);
+        if (marked > 0) {
+            unreadCounterRepository.addUnreadNotifications(userId, -marked);
+            return;
+        }
 
-        if (!notification.getRecipient().getId().equals(userId)) {
+        if (!notificationRepository.existsByIdAndRecipientId(notificationId, userId)) {
             throw new ResourceNotFoundException("Notification", "id", notificationId);
         }
-
-        notification.markAsRead();
-        notificationRepository.save(notification);
     }
 
     @Transactional
     public int markAllAsRead(UUID userId) {
-        return notificationRepository.markAllAsReadForUser(userId);
+        int marked = notificationRepository.markAllAsReadForUser(userId);
+        if (marked > 0) {
+            unreadCounterRepository.addUnreadNotifications(userId, -marked);
+        }
+        return marked;
     }
 }
@@ -0,0 +1,275 @@
+package com.rentease.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentease.config.AppConfig;
+import com.rentease.entity.OutboxEvent;
+import com.rentease.repository.MessageRepository;
+import com.rentease.repository.OutboxEventRepository;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Polls outbox_events and delivers them. Each batch is claimed in a short transaction that
+ * pushes available_at forward as a lease, so events are delivered outside any database
+ * transaction and a crash mid-batch only delays them until the lease expires.
+ *
+ * Emails in a batch are composed first and then sent together over one SMTP connection, on the
+ * bounded async executor so the poller is not held up by the mail server. Only one batch is in
+ * flight at a time: the poller claims nothing new until it has been sent, so a batch cannot wait
+ * in the executor queue past its lease and be claimed (and sent) a second time.
+ * Recipients over their hourly limit are deferred without using up a retry attempt.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final TypeReference<Map<String, String>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    // An email ready to send, with the rate-limit slot reserved for it
+    private record Outgoing(OutboxEvent event, String recipient, Instant slot) {}
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EmailService emailService;
+    private final MessageService messageService;
+    private final MessageRepository messageRepository;
+    private final RecipientRateLimiter rateLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final ObjectMapper objectMapper;
+    private final AppConfig appConfig;
+
+    // Held from claiming a batch until its emails have been sent
+    private final Semaphore inFlight = new Semaphore(1);
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:2000}")
+    public void dispatchPending() {
+        if (!inFlight.tryAcquire()) {
+            return;
+        }
+        boolean handedOff = false;
+        try {
+            handedOff = claimAndDispatch();
+        } finally {
+            if (!handedOff) {
+                inFlight.release();
+            }
+        }
+    }
+
+    // Returns true when the batch was handed to the executor, which then releases inFlight
+    private boolean claimAndDispatch() {
+        AppConfig.Outbox props = appConfig.getOutbox();
+
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxEventRepository.lockNextBatch(
+                    now, props.getMaxAttempts(), props.getBatchSize());
+            events.forEach(event -> event.setAvailableAt(now.plusSeconds(props.getLeaseSeconds())));
+            return events;
+        });
+
+        if (batch == null || batch.isEmpty()) {
+            return false;
+        }
+
+        Map<MimeMessage, Outgoing> outgoing = new LinkedHashMap<>();
+        List<UUID> processed = new ArrayList<>();
+
+        for (OutboxEvent event : batch) {
+            MimeMessage message;
+            String recipient;
+            try {
+                message = compose(event);
+                if (message == null) {
+                    // Nothing to send any more (e.g. the booking is gone)
+                    processed.add(event.getId());
+                    continue;
+                }
+                recipient = recipientOf(message);
+            } catch (Exception e) {
+                markFailed(event, e);
+                continue;
+            }
+
+            Instant now = Instant.now();
+            if (!rateLimiter.tryAcquire(recipient, now)) {
+                LocalDateTime retryAt = LocalDateTime.ofInstant(rateLimiter.nextSlot(recipient, now), ZoneId.systemDefault());
+                transactionTemplate.executeWithoutResult(status -> outboxEventRepository.defer(event.getId(), retryAt));
+                log.info("Outbox event {} deferred to {}: recipient over hourly email limit", event.getId(), retryAt);
+                continue;
+            }
+            outgoing.put(message, new Outgoing(event, recipient, now));
+        }
+
+        markProcessed(processed);
+        rateLimiter.prune(Instant.now());
+        if (outgoing.isEmpty()) {
+            return false;
+        }
+        // SMTP delivery runs on the bounded async executor; the events stay leased until it is done
+        taskExecutor.execute(() -> sendBatch(outgoing));
+        return true;
+    }
+
+    private void sendBatch(Map<MimeMessage, Outgoing> outgoing) {
+        try {
+            markProcessed(send(outgoing));
+        } catch (Exception e) {
+            // Release the claim with the error recorded rather than leaving the events leased
+            log.error("Sending a batch of {} outbox emails failed", outgoing.size(), e);
+            try {
+                outgoing.values().forEach(pending -> sendFailed(pending, e));
+            } catch (Exception markError) {
+                log.error("Could not record the failed outbox batch; it is retried when the lease expires", markError);
+            }
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 15 4 * * *}")
+    public void purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(appConfig.getOutbox().getRetentionDays());
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteProcessedBefore(cutoff));
+        log.info("Purged {} processed outbox events", deleted);
+    }
+
+    private void markProcessed(List<UUID> eventIds) {
+        if (!eventIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.markProcessed(eventIds, LocalDateTime.now()));
+        }
+    }
+
+    // Sends the batch over one connection and returns the ids of the events that were delivered
+    private List<UUID> send(Map<MimeMessage, Outgoing> outgoing) {
+        List<UUID> delivered = new ArrayList<>();
+        if (outgoing.isEmpty()) {
+            return delivered;
+        }
+
+        try {
+            emailService.sendAll(new ArrayList<>(outgoing.keySet()));
+            outgoing.values().forEach(pending -> delivered.add(pending.event().getId()));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            outgoing.forEach((message, pending) -> {
+                if (failed.isEmpty() || failed.containsKey(message)) {
+                    sendFailed(pending, failed.getOrDefault(message, e));
+                } else {
+                    delivered.add(pending.event().getId());
+                }
+            });
+        } catch (MailException e) {
+            outgoing.values().forEach(pending -> sendFailed(pending, e));
+        }
+        return delivered;
+    }
+
+    // An email that was not delivered does not count against the recipient's hourly limit
+    private void sendFailed(Outgoing pending, Exception e) {
+        rateLimiter.release(pending.recipient(), pending.slot());
+        markFailed(pending.event(), e);
+    }
+
+    private MimeMessage compose(OutboxEvent event) throws Exception {
+        UUID id = event.getAggregateId();
+        return switch (event.getEventType()) {
+            case BOOKING_REQUESTED_EMAIL -> emailService.composeBookingRequestEmail(id);
+            case BOOKING_APPROVED_EMAIL -> emailService.composeBookingApprovedEmail(id);
+            case BOOKING_DECLINED_EMAIL -> emailService.composeBookingDeclinedEmail(id);
+            case BOOKING_COMPLETED_EMAIL -> emailService.composeBookingCompletedEmail(id);
+            case BOOKING_CANCELLED_EMAIL -> {
+                Map<String, String> payload = readPayload(event);
+                yield emailService.composeBookingCancelledEmail(id, UUID.fromString(payload.get("cancelledBy")));
+            }
+            case NEW_MESSAGE_EMAIL -> composeMessageDigest(event);
+        };
+    }
+
+    // One email for everything still unread in the conversation; skipped if the recipient has
+    // since read it all or is online to see it in the app
+    private MimeMessage composeMessageDigest(OutboxEvent event) throws Exception {
+        Map<String, String> payload = readPayload(event);
+        UUID recipientId = UUID.fromString(payload.get("recipientId"));
+        if (messageService.isConnected(recipientId)) {
+            return null;
+        }
+        long unread = messageRepository.countUnreadInConversation(event.getAggregateId(), recipientId);
+        if (unread == 0) {
+            return null;
+        }
+        return emailService.composeNewMessageEmail(
+                payload.get("recipientEmail"),
+                payload.get("recipientFirstName"),
+                payload.get("senderFirstName"),
+                payload.get("senderLastName"),
+                payload.get("listingTitle"),
+                unread);
+    }
+
+    private Map<String, String> readPayload(OutboxEvent event) throws Exception {
+        return objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+    }
+
+    private static String recipientOf(MimeMessage message) {
+        try {
+            Address[] recipients = message.getAllRecipients();
+            if (recipients == null || recipients.length == 0) {
+                throw new MailPreparationException("Email has no recipients");
+            }
+            return recipients[0].toString();
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Could not read email recipients", e);
+        }
+    }
+
+    private void markFailed(OutboxEvent event, Exception e) {
+        int attempt = event.getAttempts() + 1;
+        LocalDateTime retryAt = LocalDateTime.now().plusSeconds(backoffSeconds(attempt));
+        int maxAttempts = appConfig.getOutbox().getMaxAttempts();
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.markFailed(event.getId(), truncate(e.getMessage()), retryAt, maxAttempts));
+        if (attempt >= maxAttempts) {
+            log.error("Outbox event {} ({}) failed permanently after {} attempts",
+                    event.getId(), event.getEventType(), attempt, e);
+        } else {
+            log.warn("Outbox event {} ({}) failed, retrying at {}", event.getId(), event.getEventType(), retryAt, e);
+        }
+    }
+
+    // 30s, 1m, 2m, 4m ... capped at one hour
+    private static long backoffSeconds(int attempt) {
+        return Math.min(30L << Math.min(attempt - 1, 10), 3600L);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rentease.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentease.entity.OutboxEvent;
+import com.rentease.entity.enums.OutboxEventType;
+import com.rentease.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Records a side effect in the caller's transaction. It is delivered by OutboxDispatcher
+     * only once that transaction commits, and is never lost if the process dies afterwards.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType type, UUID aggregateId) {
+        enqueue(type, aggregateId, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType type, UUID aggregateId, Map<String, String> payload) {
+        OutboxEvent event = OutboxEvent.builder()
+                .eventType(type)
+                .aggregateId(aggregateId)
+                .payload(payload != null ? toJson(payload) : null)
+                .availableAt(LocalDateTime.now())
+                .build();
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Enqueues an event that is held back until {@code availableAt}. If an event with the same
+     * dedup key is still pending, nothing is added and false is returned: the pending event is
+     * expected to pick up the current state when it is delivered. The check and the insert are
+     * one statement, backed by a unique index on pending dedup keys, so concurrent callers cannot
+     * both enqueue.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean enqueueCoalesced(OutboxEventType type, UUID aggregateId, Map<String, String> payload,
+                                    String dedupKey, LocalDateTime availableAt) {
+        return outboxEventRepository.insertUnlessPending(
+                type.name(), aggregateId, toJson(payload), dedupKey, availableAt) > 0;
+    }
+
+    private String toJson(Map<String, String> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.rentease.service;
+
+import com.rentease.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingMaintenanceService {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Repairs drift in users.total_reviews / rating_sum / average_rating, which are
+     * otherwise maintained incrementally by ReviewService.createReview.
+     */
+    @Scheduled(cron = "${app.ratings.recompute-cron:0 30 3 * * *}")
+    @Transactional
+    public void recomputeUserRatings() {
+        int repaired = userRepository.recomputeRatings();
+        if (repaired > 0) {
+            log.warn("Repaired rating aggregates for {} users", repaired);
+        } else {
+            log.debug("User rating aggregates are consistent");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.rentease.service;
+
+import com.rentease.config.AppConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sliding one-hour window of emails sent per recipient, so a burst of bookings or messages
+ * for one busy owner cannot flood their inbox or trip the SMTP provider's per-recipient limits.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipientRateLimiter {
+
+    private static final Duration WINDOW = Duration.ofHours(1);
+
+    private final AppConfig appConfig;
+
+    // Guarded by this
+    private final Map<String, ArrayDeque<Instant>> sentByRecipient = new HashMap<>();
+
+    /**
+     * Reserves a send for the recipient if they are under the hourly limit, so concurrent
+     * batches cannot overshoot it. Returns false (recording nothing) when the limit is reached.
+     * Call {@link #release} if the email is then not delivered.
+     */
+    public synchronized boolean tryAcquire(String recipient, Instant now) {
+        ArrayDeque<Instant> window = sentByRecipient.computeIfAbsent(key(recipient), k -> new ArrayDeque<>());
+        evictExpired(window, now);
+        if (window.size() >= appConfig.getMail().getRecipientHourlyLimit()) {
+            return false;
+        }
+        window.addLast(now);
+        return true;
+    }
+
+    // Gives back a slot reserved by tryAcquire at the given time
+    public synchronized void release(String recipient, Instant reservedAt) {
+        ArrayDeque<Instant> window = sentByRecipient.get(key(recipient));
+        if (window != null) {
+            window.removeLastOccurrence(reservedAt);
+        }
+    }
+
+    // Earliest time the recipient frees up a slot
+    public synchronized Instant nextSlot(String recipient, Instant now) {
+        ArrayDeque<Instant> window = sentByRecipient.get(key(recipient));
+        if (window == null || window.isEmpty()) {
+            return now;
+        }
+        return window.peekFirst().plus(WINDOW);
+    }
+
+    // Drops recipients with no sends inside the window
+    public synchronized void prune(Instant now) {
+        sentByRecipient.values().removeIf(window -> {
+            evictExpired(window, now);
+            return window.isEmpty();
+        });
+    }
+
+    private static void evictExpired(ArrayDeque<Instant> window, Instant now) {
+        Instant cutoff = now.minus(WINDOW);
+        while (!window.isEmpty() && !window.peekFirst().isAfter(cutoff)) {
+            window.pollFirst();
+        }
+    }
+
+    private static String key(String recipient) {
+        return recipient.toLowerCase(Locale.ROOT);
+    }
+}
@@ -5,16 +5,19 @@ import com.rentease.dto.request.ReviewResponseRequest;
 import com.rentease.dto.response.PagedResponse;
 import com.rentease.dto.response.ReviewResponse;
 import com.rentease.entity.Booking;
+import com.rentease.entity.ListingRatingStats;
 import com.rentease.entity.Review;
 import com.rentease.entity.enums.BookingStatus;
 import com.rentease.exception.BadRequestException;
 import com.rentease.exception.ForbiddenException;
 import com.rentease.exception.ResourceNotFoundException;
 import com.rentease.repository.BookingRepository;
+import com.rentease.repository.ListingRatingStatsRepository;
 import com.rentease.repository.ReviewRepository;
+import com.rentease.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +33,8 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final BookingRepository bookingRepository;
+    private final ListingRatingStatsRepository listingRatingStatsRepository;
+    private final UserRepository userRepository;
 
     @Transactional
     public ReviewResponse createReview(UUID reviewerId, UUID bookingId, CreateReviewRequest request) {
@@ -63,6 +68,8 @@ public class ReviewService {
                 .build();
 
         Review saved = reviewRepository.save(review);
+        listingRatingStatsRepository.addRating(booking.getListing().getId(), request.getRating());
+        userRepository.addRating(booking.getListing().getOwner().getId(), request.getRating());
         return ReviewResponse.fromEntity(saved);
     }
 
@@ -74,20 +81,29 @@ public class ReviewService {
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<ReviewResponse> getListingReviews(UUID listingId, int page, int size) {
-        Page<Review> reviews = reviewRepository.findByListingId(listingId, PageRequest.of(page, size));
+    public PagedResponse<ReviewResponse> getListingReviews(UUID listingId, int page, int size, boolean withTotal) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Slice<Review> reviews = withTotal
+                ? reviewRepository.findByListingId(listingId, pageRequest)
+                : reviewRepository.sliceByListingId(listingId, pageRequest);
         return mapToPagedResponse(reviews);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<ReviewResponse> getUserReviews(UUID userId, int page, int size) {
-        Page<Review> reviews = reviewRepository.findByRevieweeId(userId, PageRequest.of(page, size));
+    public PagedResponse<ReviewResponse> getUserReviews(UUID userId, int page, int size, boolean withTotal) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Slice<Review> reviews = withTotal
+                ? reviewRepository.findByRevieweeId(userId, pageRequest)
+                : reviewRepository.sliceByRevieweeId(userId, pageRequest);
         return mapToPagedResponse(reviews);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<ReviewResponse> getMyReviews(UUID userId, int page, int size) {
-        Page<Review> reviews = reviewRepository.findByReviewerId(userId, PageRequest.of(page, size));
+    public PagedResponse<ReviewResponse> getMyReviews(UUID userId, int page, int size, boolean withTotal) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Slice<Review> reviews = withTotal
+                ? reviewRepository.findByReviewerId(userId, pageRequest)
+                : reviewRepository.sliceByReviewerId(userId, pageRequest);
         return mapToPagedResponse(reviews);
     }
 
@@ -115,18 +131,16 @@ public class ReviewService {
 
     @Transactional(readOnly = true)
     public Map<String, Object> getListingReviewStats(UUID listingId) {
-        Double averageRating = reviewRepository.getAverageRatingForListing(listingId);
-        long totalReviews = reviewRepository.countByListingId(listingId);
-        List<Object[]> distribution = reviewRepository.getRatingDistribution(listingId);
+        ListingRatingStats ratingStats = listingRatingStatsRepository.findById(listingId).orElse(null);
 
         Map<Integer, Long> ratingCounts = new HashMap<>();
         for (int i = 1; i <= 5; i++) {
-            ratingCounts.put(i, 0L);
-        }
-        for (Object[] row : distribution) {
-            ratingCounts.put((Integer) row[0], (Long) row[1]);
+            ratingCounts.put(i, ratingStats != null ? (long) ratingStats.getCountForRating(i) : 0L);
         }
 
+        Double averageRating = ratingStats != null ? ratingStats.getAverageRating() : null;
+        long totalReviews = ratingStats != null ? ratingStats.getReviewCount() : 0L;
+
         Map<String, Object> stats = new HashMap<>();
         stats.put("averageRating", averageRating != null ? Math.round(averageRating * 10.0) / 10.0 : null);
         stats.put("totalReviews", totalReviews);
@@ -150,19 +164,11 @@ public class ReviewService {
         return !reviewRepository.existsByBookingIdAndReviewerId(bookingId, userId);
     }
 
-    private PagedResponse<ReviewResponse> mapToPagedResponse(Page<Review> page) {
+    private PagedResponse<ReviewResponse> mapToPagedResponse(Slice<Review> page) {
         List<ReviewResponse> content = page.getContent().stream()
                 .map(ReviewResponse::fromEntity)
                 .toList();
 
-        return PagedResponse.<ReviewResponse>builder()
-                .data(content)
-                .pagination(PagedResponse.Pagination.builder()
-                        .page(page.getNumber())
-                        .size(page.getSize())
-                        .totalElements(page.getTotalElements())
-                        .totalPages(page.getTotalPages())
-                        .build())
-                .build();
+        return PagedResponse.of(content, page);
     }
 }
@@ -11,7 +11,9 @@ import com.rentease.entity.enums.IdVerificationStatus;
 import com.rentease.exception.BadRequestException;
 import com.rentease.exception.ResourceNotFoundException;
 import com.rentease.mapper.UserMapper;
+import com.rentease.repository.ListingRepository;
 import com.rentease.repository.UserRepository;
+import com.rentease.security.TokenRevocationList;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -25,8 +27,10 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ListingRepository listingRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationList tokenRevocationList;
 
     @Transactional(readOnly = true)
     public UserResponse getCurrentUser(UUID userId) {
@@ -47,8 +51,11 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        if (request.getFirstName() != null && !request.getFirstName().isBlank()) {
+        if (request.getFirstName() != null && !request.getFirstName().isBlank()
+                && !request.getFirstName().trim().equals(user.getFirstName())) {
             user.setFirstName(request.getFirstName().trim());
+            // Keep the owner snapshot on listing summaries in sync
+            listingRepository.updateOwnerFirstName(userId, user.getFirstName());
         }
 
         if (request.getLastName() != null && !request.getLastName().isBlank()) {
@@ -93,6 +100,7 @@ public class UserService {
 
         // Update password
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
+        revokeTokens(user);
         userRepository.save(user);
     }
 
@@ -105,15 +113,24 @@ public class UserService {
         // In a real app, you'd want to handle cascading deletes of listings, bookings, etc.
         user.setEmail("deleted_" + userId + "@deleted.com");
         user.setFirstName("Deleted");
+        listingRepository.updateOwnerFirstName(userId, "Deleted");
         user.setLastName("User");
         user.setAvatarUrl(null);
         user.setBio(null);
         user.setLocation(null);
         user.setPasswordHash("DELETED");
+        revokeTokens(user);
 
         userRepository.save(user);
     }
 
+    // Invalidates every access and refresh token issued to the user so far
+    private void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        user.setTokensRevokedAt(LocalDateTime.now());
+        tokenRevocationList.revokeAfterCommit(user.getId(), user.getTokenVersion());
+    }
+
     @Transactional(readOnly = true)
     public IdVerificationResponse getVerificationStatus(UUID userId) {
         User user = userRepository.findById(userId)
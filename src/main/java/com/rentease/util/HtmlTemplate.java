@@ -0,0 +1,97 @@
+package com.rentease.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A tiny HTML template, parsed once into literal segments and placeholders.
+ * {@code {{name}}} inserts the HTML-escaped value and {@code {{{name}}}} inserts it as-is
+ * (only for fragments that were themselves rendered from a template). Missing values render
+ * as empty strings. Rendering reuses a per-thread StringBuilder.
+ */
+public final class HtmlTemplate {
+
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+    private final String[] literals; // literals[i] precedes names[i]; the last one trails the template
+    private final String[] names;
+    private final boolean[] raw;
+
+    private HtmlTemplate(String[] literals, String[] names, boolean[] raw) {
+        this.literals = literals;
+        this.names = names;
+        this.raw = raw;
+    }
+
+    public static HtmlTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+
+        int pos = 0;
+        int open;
+        while ((open = source.indexOf("{{", pos)) >= 0) {
+            boolean isRaw = source.startsWith("{{{", open);
+            String close = isRaw ? "}}}" : "}}";
+            int start = open + (isRaw ? 3 : 2);
+            int end = source.indexOf(close, start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            literals.add(source.substring(pos, open));
+            names.add(source.substring(start, end).trim());
+            raw.add(isRaw);
+            pos = end + close.length();
+        }
+        literals.add(source.substring(pos));
+
+        boolean[] rawFlags = new boolean[raw.size()];
+        for (int i = 0; i < rawFlags.length; i++) {
+            rawFlags[i] = raw.get(i);
+        }
+        return new HtmlTemplate(literals.toArray(new String[0]), names.toArray(new String[0]), rawFlags);
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        try {
+            for (int i = 0; i < names.length; i++) {
+                out.append(literals[i]);
+                String value = values.get(names[i]);
+                if (value != null) {
+                    if (raw[i]) {
+                        out.append(value);
+                    } else {
+                        escape(value, out);
+                    }
+                }
+            }
+            out.append(literals[names.length]);
+            return out.toString();
+        } finally {
+            // Don't pin an unusually large buffer to the thread
+            if (out.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
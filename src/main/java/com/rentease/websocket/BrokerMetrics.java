@@ -0,0 +1,85 @@
+package com.rentease.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * STOMP metrics for sizing chat across instances: sessions and subscriptions known to the user
+ * registry, and messages handed to the broker, split by whether they originated on this
+ * instance or arrived from another one.
+ *
+ * Installed on the broker channel by WebSocketConfig whatever the broker backend.
+ */
+@Component
+@RequiredArgsConstructor
+public class BrokerMetrics implements ChannelInterceptor {
+
+    // The registry is created by the broker configuration, which in turn needs this interceptor
+    private final ObjectProvider<SimpUserRegistry> userRegistry;
+    private final MeterRegistry meterRegistry;
+
+    private Counter localBroadcasts;
+    private Counter remoteBroadcasts;
+
+    @PostConstruct
+    void init() {
+        localBroadcasts = Counter.builder("app.websocket.broadcasts")
+                .tag("origin", "local")
+                .description("Messages sent to the broker by this instance")
+                .register(meterRegistry);
+        remoteBroadcasts = Counter.builder("app.websocket.broadcasts")
+                .tag("origin", "remote")
+                .description("Messages sent to the broker on behalf of another instance")
+                .register(meterRegistry);
+        Gauge.builder("app.websocket.sessions", this, BrokerMetrics::sessions)
+                .description("Connected STOMP sessions")
+                .register(meterRegistry);
+        Gauge.builder("app.websocket.subscriptions", this, BrokerMetrics::subscriptions)
+                .description("Active STOMP subscriptions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        // A /user message is counted once, not again for each session it resolves to
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE
+                && !message.getHeaders().containsKey(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION)) {
+            if (message.getHeaders().containsKey(RedisBrokerBridge.RELAYED_HEADER)) {
+                remoteBroadcasts.increment();
+            } else {
+                localBroadcasts.increment();
+            }
+        }
+        return message;
+    }
+
+    private double sessions() {
+        SimpUserRegistry registry = userRegistry.getIfAvailable();
+        if (registry == null) {
+            return 0;
+        }
+        return registry.getUsers().stream().mapToInt(user -> user.getSessions().size()).sum();
+    }
+
+    private double subscriptions() {
+        SimpUserRegistry registry = userRegistry.getIfAvailable();
+        if (registry == null) {
+            return 0;
+        }
+        return registry.getUsers().stream()
+                .flatMap(user -> user.getSessions().stream())
+                .mapToInt(session -> session.getSubscriptions().size())
+                .sum();
+    }
+}
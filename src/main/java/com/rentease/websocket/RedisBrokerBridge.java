@@ -0,0 +1,149 @@
+package com.rentease.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Lets every instance run its own in-memory STOMP broker while chat still reaches subscribers
+ * connected to other instances. Broadcasts the application sends to /topic or to a /user
+ * destination are published to Redis; each other instance hands them to its local broker, and
+ * /user destinations are resolved there against that instance's own sessions.
+ *
+ * Installed on the broker channel by WebSocketConfig when app.websocket.broker=redis.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.broker", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisBrokerBridge implements ChannelInterceptor {
+
+    public static final String CHANNEL = "rentease:stomp:broadcast";
+
+    // Marks messages received from Redis so they are not published again
+    static final String RELAYED_HEADER = "rentease-relayed";
+
+    private static final String USER_PREFIX = "/user/";
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final ObjectProvider<SimpMessagingTemplate> brokerTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Broadcasts are received through RedisConfig's listener container, which only exists with the Redis cache
+    @Value("${spring.cache.type:redis}")
+    private String cacheType;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private Counter published;
+    private Counter failed;
+
+    private record Envelope(String node, String destination, String contentType, byte[] payload) {}
+
+    @PostConstruct
+    void init() {
+        if (!"redis".equals(cacheType) || redisTemplate.getIfAvailable() == null) {
+            throw new IllegalStateException("app.websocket.broker=redis requires Redis (spring.cache.type=redis)");
+        }
+        published = Counter.builder("app.websocket.fanout")
+                .tag("result", "published")
+                .description("Broker messages published to other instances")
+                .register(meterRegistry);
+        failed = Counter.builder("app.websocket.fanout")
+                .tag("result", "failed")
+                .description("Broker messages that could not be published to other instances")
+                .register(meterRegistry);
+        log.info("STOMP broadcasts are fanned out over Redis channel {}", CHANNEL);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (shouldPublish(message)) {
+            publish(message);
+        }
+        return message;
+    }
+
+    // Called for every broadcast published by any instance, including this one
+    public void onBroadcast(String body) {
+        Envelope envelope;
+        try {
+            envelope = objectMapper.readValue(body, Envelope.class);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed STOMP broadcast", e);
+            return;
+        }
+        if (nodeId.equals(envelope.node())) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.destination());
+        if (envelope.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+        }
+        accessor.setHeader(RELAYED_HEADER, true);
+        accessor.setLeaveMutable(true);
+        brokerTemplate.getObject().send(MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+    }
+
+    private boolean shouldPublish(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || message.getHeaders().containsKey(RELAYED_HEADER)) {
+            return false;
+        }
+        // Resolved user destinations (/queue/...-user{session}) only exist on the instance that resolved them
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return destination != null && (destination.startsWith(TOPIC_PREFIX) || destination.startsWith(USER_PREFIX));
+    }
+
+    private void publish(Message<?> message) {
+        byte[] payload;
+        if (message.getPayload() instanceof byte[] bytes) {
+            payload = bytes;
+        } else if (message.getPayload() instanceof String text) {
+            payload = text.getBytes(StandardCharsets.UTF_8);
+        } else {
+            log.warn("Not fanning out broker message with {} payload", message.getPayload().getClass().getName());
+            return;
+        }
+
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        Envelope envelope = new Envelope(
+                nodeId,
+                SimpMessageHeaderAccessor.getDestination(message.getHeaders()),
+                contentType != null ? contentType.toString() : null,
+                payload
+        );
+        try {
+            redisTemplate.getObject().convertAndSend(CHANNEL, objectMapper.writeValueAsString(envelope));
+            published.increment();
+        } catch (Exception e) {
+            // Local subscribers still get the message; other instances miss it
+            failed.increment();
+            log.warn("Could not publish STOMP broadcast to {}", envelope.destination(), e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Composite indexes backing keyset (seek) pagination on listing browse.
+-- The trailing id column makes the sort order total so cursors are stable.
+CREATE INDEX idx_listings_browse_created ON listings(created_at DESC, id DESC)
+    WHERE active = TRUE AND available = TRUE;
+CREATE INDEX idx_listings_browse_price ON listings(price_per_day, id)
+    WHERE active = TRUE AND available = TRUE;
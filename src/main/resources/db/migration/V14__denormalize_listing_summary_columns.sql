@@ -0,0 +1,38 @@
+-- Denormalize the fields needed by listing summaries so browse/search can be
+-- served from the listings table alone (no listing_images or users joins).
+
+ALTER TABLE listings ADD COLUMN primary_image_url VARCHAR(500);
+ALTER TABLE listings ADD COLUMN owner_first_name VARCHAR(100);
+ALTER TABLE listings ADD COLUMN owner_id_verified BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Backfill primary image (lowest display order wins)
+UPDATE listings l SET primary_image_url = (
+    SELECT li.image_url
+    FROM listing_images li
+    WHERE li.listing_id = l.id
+    ORDER BY li.display_order
+    LIMIT 1
+);
+
+-- Backfill owner snapshot
+UPDATE listings l
+SET owner_first_name = u.first_name,
+    owner_id_verified = u.id_verified
+FROM users u
+WHERE u.id = l.owner_id;
+
+-- ID verification is approved outside the API, so mirror it with a trigger.
+-- First name changes are propagated by UserService.updateProfile.
+CREATE OR REPLACE FUNCTION sync_listing_owner_verified()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE listings SET owner_id_verified = NEW.id_verified WHERE owner_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER on_user_id_verified_change
+    AFTER UPDATE OF id_verified ON users
+    FOR EACH ROW
+    WHEN (OLD.id_verified IS DISTINCT FROM NEW.id_verified)
+    EXECUTE FUNCTION sync_listing_owner_verified();
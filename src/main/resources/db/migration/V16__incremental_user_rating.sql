@@ -0,0 +1,23 @@
+-- Maintain user rating aggregates incrementally from ReviewService instead of
+-- re-scanning every review of the reviewee on each insert/update/delete.
+
+DROP TRIGGER IF EXISTS on_new_review ON reviews;
+DROP TRIGGER IF EXISTS on_delete_review ON reviews;
+DROP FUNCTION IF EXISTS update_user_rating();
+DROP FUNCTION IF EXISTS update_user_rating_on_delete();
+
+-- Running sum so the average can be derived without rounding drift
+ALTER TABLE users ADD COLUMN rating_sum INTEGER NOT NULL DEFAULT 0;
+
+UPDATE users SET total_reviews = 0, rating_sum = 0, average_rating = NULL;
+
+UPDATE users u
+SET total_reviews = s.review_count,
+    rating_sum = s.rating_sum,
+    average_rating = (s.rating_sum::DECIMAL / s.review_count)::DECIMAL(3,2)
+FROM (
+    SELECT reviewee_id, COUNT(*) AS review_count, SUM(rating) AS rating_sum
+    FROM reviews
+    GROUP BY reviewee_id
+) s
+WHERE s.reviewee_id = u.id;
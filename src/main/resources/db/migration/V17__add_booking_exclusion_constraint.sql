@@ -0,0 +1,20 @@
+-- Enforce non-overlapping APPROVED/ACTIVE bookings per listing with an exclusion
+-- constraint instead of the check-then-write trigger from V3, which could race
+-- under concurrent approvals.
+--
+-- The rule is unchanged from V3's "(start, end) OVERLAPS (start, end)": ranges are
+-- half-open, so one booking may end on the day the next starts (a shared handover
+-- day), and existing rows that rely on that stay valid. A booking whose start and
+-- end fall on the same day still occupies that day, as it did under OVERLAPS.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DROP TRIGGER IF EXISTS prevent_booking_overlap ON bookings;
+DROP FUNCTION IF EXISTS check_booking_overlap();
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+    EXCLUDE USING gist (
+        listing_id WITH =,
+        daterange(start_date, GREATEST(end_date, start_date + 1), '[)') WITH &&
+    )
+    WHERE (status IN ('APPROVED', 'ACTIVE'));
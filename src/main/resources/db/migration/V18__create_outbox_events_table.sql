@@ -0,0 +1,20 @@
+-- Transactional outbox: side effects (emails) are recorded in the same transaction
+-- as the business change and delivered afterwards by OutboxDispatcher.
+CREATE TABLE outbox_events (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    payload TEXT,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Pending events in delivery order; processed rows drop out of the index
+CREATE INDEX idx_outbox_events_pending ON outbox_events(available_at, created_at)
+    WHERE processed_at IS NULL;
+
+CREATE INDEX idx_outbox_events_processed ON outbox_events(processed_at)
+    WHERE processed_at IS NOT NULL;
@@ -0,0 +1,8 @@
+-- Lets a pending event absorb later duplicates (e.g. one new-message digest per
+-- conversation and recipient) instead of queueing one email per trigger.
+ALTER TABLE outbox_events ADD COLUMN dedup_key VARCHAR(200);
+
+-- At most one pending event per key. OutboxService inserts with ON CONFLICT DO NOTHING,
+-- so concurrent transactions cannot both queue the same digest.
+CREATE UNIQUE INDEX idx_outbox_events_dedup_key ON outbox_events(dedup_key)
+    WHERE processed_at IS NULL;
@@ -0,0 +1,3 @@
+-- Tokens carry the version they were issued at; bumping it revokes every token
+-- issued before (password change, account deletion).
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,22 @@
+-- Per-user unread badges, maintained by MessageService and NotificationService in the
+-- same transaction as the change, so polling the counts is a primary-key lookup
+CREATE TABLE user_unread_counters (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    unread_messages INTEGER NOT NULL DEFAULT 0,
+    unread_notifications INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Backfill from existing messages and notifications
+INSERT INTO user_unread_counters (user_id, unread_messages, unread_notifications)
+SELECT u.id,
+       (SELECT COUNT(*)
+        FROM messages m
+        JOIN conversations c ON c.id = m.conversation_id
+        WHERE (c.participant1_id = u.id OR c.participant2_id = u.id)
+          AND m.sender_id <> u.id
+          AND m.read_at IS NULL),
+       (SELECT COUNT(*)
+        FROM notifications n
+        WHERE n.recipient_id = u.id AND n.is_read = FALSE)
+FROM users u;
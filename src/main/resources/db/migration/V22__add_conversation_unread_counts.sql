@@ -0,0 +1,14 @@
+-- Unread messages per participant, kept on the conversation so the inbox
+-- does not count messages per row
+ALTER TABLE conversations ADD COLUMN participant1_unread INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE conversations ADD COLUMN participant2_unread INTEGER NOT NULL DEFAULT 0;
+
+UPDATE conversations c SET
+    participant1_unread = (SELECT COUNT(*) FROM messages m
+                           WHERE m.conversation_id = c.id
+                             AND m.sender_id <> c.participant1_id
+                             AND m.read_at IS NULL),
+    participant2_unread = (SELECT COUNT(*) FROM messages m
+                           WHERE m.conversation_id = c.id
+                             AND m.sender_id <> c.participant2_id
+                             AND m.read_at IS NULL);
@@ -0,0 +1,15 @@
+-- MessageService now updates the conversation's last-message fields in the same
+-- statement that counts the message as unread, so the trigger is redundant
+DROP TRIGGER IF EXISTS on_new_message ON messages;
+DROP FUNCTION IF EXISTS update_conversation_last_message();
+
+-- Inbox: a participant's conversations, most recent first
+CREATE INDEX idx_conversations_participant1_last_message
+    ON conversations(participant1_id, last_message_at DESC NULLS LAST);
+CREATE INDEX idx_conversations_participant2_last_message
+    ON conversations(participant2_id, last_message_at DESC NULLS LAST);
+
+-- Covered by the composite indexes above
+DROP INDEX IF EXISTS idx_conversations_participant1;
+DROP INDEX IF EXISTS idx_conversations_participant2;
+DROP INDEX IF EXISTS idx_conversations_last_message;
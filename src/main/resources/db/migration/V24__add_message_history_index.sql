@@ -0,0 +1,6 @@
+-- Keyset pagination over a conversation's history, newest first.
+-- The trailing id column makes the order total so cursors are stable.
+CREATE INDEX idx_messages_conversation_created ON messages(conversation_id, created_at DESC, id DESC);
+
+-- Covered by the composite index above
+DROP INDEX IF EXISTS idx_messages_conversation;
@@ -0,0 +1,5 @@
+-- When the user's tokens were last revoked. Every instance polls recent revocations,
+-- so requests are authenticated from the access token without loading the user.
+ALTER TABLE users ADD COLUMN tokens_revoked_at TIMESTAMP;
+
+CREATE INDEX idx_users_tokens_revoked_at ON users (tokens_revoked_at) WHERE tokens_revoked_at IS NOT NULL;
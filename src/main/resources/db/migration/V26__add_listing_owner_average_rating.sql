@@ -0,0 +1,24 @@
+-- Owner rating on listing summaries, served from the listings table like the
+-- other owner snapshot columns (V14).
+ALTER TABLE listings ADD COLUMN owner_average_rating DECIMAL(3,2);
+
+UPDATE listings l
+SET owner_average_rating = u.average_rating
+FROM users u
+WHERE u.id = l.owner_id;
+
+-- Ratings are maintained by bulk SQL on users (ReviewService, nightly repair),
+-- so mirror them with a trigger.
+CREATE OR REPLACE FUNCTION sync_listing_owner_rating()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE listings SET owner_average_rating = NEW.average_rating WHERE owner_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER on_user_average_rating_change
+    AFTER UPDATE OF average_rating ON users
+    FOR EACH ROW
+    WHEN (OLD.average_rating IS DISTINCT FROM NEW.average_rating)
+    EXECUTE FUNCTION sync_listing_owner_rating();